@@ -0,0 +1,288 @@
+package game.loadgen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ *  Emulation of the coordinator side of one session, following the call sequence in
+ *  API_NOTES (session, game, deal, bid/swap/defense, trick/play, PATCH notifications)
+ *
+ *  Cards are sent in the server's protocol representation (suit = card % 4, rank = card / 4,
+ *  same-color suits adding up to 3).  Remote positions are played by a simple random
+ *  strategy (legal moves only); cards returned for local positions are checked for legality.
+ */
+class Coordinator
+{
+    static final int DEALER_POS = 3;
+
+    LoadGenerator gen;
+    String        token;
+    boolean       random;  // random mix of local positions per deal
+    boolean[]     local = new boolean[4];  // local positions (if not `random`)
+    Random        rnd;
+
+    // current deal
+    int           gameNum;
+    int           dealNum;
+    boolean[]     isLocal = new boolean[4];
+    List<List<Integer>> hands;
+    int           turnCard;
+    int           declarer;
+    int           trump;
+    boolean       alone;
+
+    public Coordinator(LoadGenerator gen, String token, String local, long seed) {
+        this.gen   = gen;
+        this.token = token;
+        this.rnd   = new Random(seed);
+        if (local.equals("random")) {
+            this.random = true;
+        } else if (!local.isEmpty()) {
+            for (String pos : local.split(",")) {
+                int p = Integer.parseInt(pos.trim());
+                if (p < 0 || p > 3) {
+                    throw new IllegalArgumentException("bad local position: " + pos);
+                }
+                this.local[p] = true;
+            }
+        }
+    }
+
+    public void run(int games, int deals, int warmup, Runnable onWarm) {
+        if (warmup == 0) {
+            onWarm.run();
+        }
+        gen.send("POST", "/session", Map.of("token", token, "status", "new"));
+        for (gameNum = 0; gameNum < games; gameNum++) {
+            gen.send("POST", "/game", Map.of("token", token, "gameNum", gameNum, "status", "new"));
+            for (dealNum = 0; dealNum < deals; dealNum++) {
+                playDeal();
+                gen.deals.incrementAndGet();
+            }
+            gen.send("PATCH", "/game", Map.of("token", token, "gameNum", gameNum,
+                                              "status", "complete", "info", ""));
+            if (gameNum + 1 == warmup) {
+                onWarm.run();
+            }
+        }
+        gen.send("PATCH", "/session", Map.of("token", token, "status", "complete", "info", ""));
+    }
+
+    // ---------- Card Rules ---------- //
+
+    int suit(int card) {
+        // left bower belongs to trump suit
+        return card / 4 == 2 && card % 4 == 3 - trump ? trump : card % 4;
+    }
+
+    // value of card within trick (-1 if it can't win)
+    int value(int card, int leadSuit) {
+        int rank = card / 4;
+        if (suit(card) == trump) {
+            return rank == 2 ? (card % 4 == trump ? 107 : 106) : 100 + rank;
+        }
+        return suit(card) == leadSuit ? rank : -1;
+    }
+
+    List<Integer> legalCards(List<Integer> hand, int leadSuit) {
+        if (leadSuit >= 0) {
+            List<Integer> follow = hand.stream().filter(c -> suit(c) == leadSuit).toList();
+            if (!follow.isEmpty()) {
+                return follow;
+            }
+        }
+        return hand;
+    }
+
+    static String join(List<Integer> cards, int padTo) {
+        List<Integer> list = new ArrayList<Integer>(cards);
+        while (list.size() < padTo) {
+            list.add(-1);
+        }
+        return list.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    Map<String, Object> params(Object... kvs) {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("token", token);
+        map.put("gameNum", gameNum);
+        map.put("dealNum", dealNum);
+        for (int i = 0; i < kvs.length; i += 2) {
+            map.put((String)kvs[i], kvs[i + 1]);
+        }
+        return map;
+    }
+
+    // ---------- Deal ---------- //
+
+    void playDeal() {
+        List<Integer> deck = new ArrayList<Integer>();
+        for (int card = 0; card < 24; card++) {
+            deck.add(card);
+        }
+        Collections.shuffle(deck, rnd);
+        hands = new ArrayList<List<Integer>>();
+        for (int pos = 0; pos < 4; pos++) {
+            hands.add(new ArrayList<Integer>(deck.subList(pos * 5, pos * 5 + 5)));
+            isLocal[pos] = random ? rnd.nextBoolean() : local[pos];
+        }
+        turnCard = deck.get(20);
+        int[] cards = deck.stream().mapToInt(Integer::intValue).toArray();
+        gen.send("POST", "/deal", params("status", "new", "cards", cards));
+
+        if (!bid()) {
+            gen.send("PATCH", "/deal", params("status", "complete", "info", "all passed"));
+            return;
+        }
+        defend();
+
+        int   leader = (DEALER_POS + 1) % 4;
+        int[] tricks = new int[2];
+        for (int trickNum = 0; trickNum < 5; trickNum++) {
+            leader = playTrick(trickNum, leader);
+            tricks[leader % 2]++;
+        }
+        int made = tricks[declarer % 2];
+        String info = String.format("declarer %d, tricks %d", declarer, made);
+        gen.send("PATCH", "/deal", params("status", "complete", "info", info));
+    }
+
+    // returns false if all positions passed
+    boolean bid() {
+        int turnSuit = turnCard % 4;
+        for (int bidSeq = 0; bidSeq < 8; bidSeq++) {
+            int     pos   = bidSeq % 4;
+            int     round = bidSeq / 4;
+            int     suit;
+            boolean lone;
+            if (isLocal[pos]) {
+                JsonNode resp = gen.get("/bid", params("round", round, "turnCard", turnCard,
+                                                        "pos", pos));
+                suit = resp.get("suit").asInt();
+                lone = resp.get("alone").asBoolean();
+                // server returns -1 or 4 for a pass ("default" protocol passes the engine
+                // representation through)
+                if (suit == 4) {
+                    suit = -1;
+                }
+                checkBid(round, suit);
+            } else {
+                suit = -1;
+                lone = false;
+                if (round == 0 && rnd.nextInt(5) == 0) {
+                    suit = turnSuit;
+                } else if (round == 1 && rnd.nextInt(4) == 0) {
+                    suit = (turnSuit + 1 + rnd.nextInt(3)) % 4;
+                }
+                gen.send("POST", "/bid", params("round", round, "turnCard", turnCard, "pos", pos,
+                                                "suit", suit, "alone", lone));
+            }
+            if (suit >= 0 && suit < 4) {
+                declarer = pos;
+                trump    = suit;
+                alone    = lone;
+                if (round == 0) {
+                    swap();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // check server bid is legal (turn suit in first round, any other suit in second round)
+    void checkBid(int round, int suit) {
+        int turnSuit = turnCard % 4;
+        boolean legal = suit == -1 || (round == 0 ? suit == turnSuit :
+                                       suit >= 0 && suit < 4 && suit != turnSuit);
+        if (!legal) {
+            throw new IllegalStateException(String.format("illegal bid %d in round %d (turn " +
+                                                          "suit %d)", suit, round, turnSuit));
+        }
+    }
+
+    void swap() {
+        List<Integer> hand = hands.get(DEALER_POS);
+        int card;
+        if (isLocal[DEALER_POS]) {
+            JsonNode resp = gen.get("/swap", params("declarerPos", declarer, "turnCard", turnCard,
+                                                    "pos", DEALER_POS,
+                                                    "swappableCards", join(hand, 0)));
+            card = resp.get("card").asInt();
+        } else {
+            card = hand.get(rnd.nextInt(hand.size()));
+            gen.send("POST", "/swap", params("declarerPos", declarer, "turnCard", turnCard,
+                                             "pos", DEALER_POS, "card", card));
+        }
+        if (card >= 0 && card != turnCard) {
+            if (!hand.remove(Integer.valueOf(card))) {
+                throw new IllegalStateException("bad swap card: " + card);
+            }
+            hand.add(turnCard);
+        }
+    }
+
+    void defend() {
+        for (int pos = 0; pos < 4; pos++) {
+            if (pos % 2 == declarer % 2) {
+                continue;
+            }
+            if (isLocal[pos]) {
+                gen.get("/defense", params("declarerPos", declarer, "trumpSuit", trump, "pos", pos));
+            } else {
+                gen.send("POST", "/defense", params("declarerPos", declarer, "trumpSuit", trump,
+                                                    "pos", pos, "alone", false));
+            }
+        }
+    }
+
+    // returns position of trick winner
+    int playTrick(int trickNum, int leader) {
+        gen.send("POST", "/trick", params("trickNum", trickNum, "status", "new"));
+        int leadSuit = -1;
+        int winPos   = -1;
+        int winVal   = -1;
+        for (int trickSeq = 0; trickSeq < 4; trickSeq++) {
+            int pos = (leader + trickSeq) % 4;
+            if (alone && pos == (declarer + 2) % 4) {
+                continue;
+            }
+            List<Integer> hand  = hands.get(pos);
+            List<Integer> legal = legalCards(hand, leadSuit);
+            int card;
+            if (isLocal[pos]) {
+                JsonNode resp = gen.get("/play", params("trickNum", trickNum, "trickSeq", trickSeq,
+                                                        "pos", pos,
+                                                        "playableCards", join(legal, 5)));
+                card = resp.get("card").asInt();
+                if (!legal.contains(card)) {
+                    throw new IllegalStateException(String.format("illegal play %d (legal: %s)",
+                                                                  card, legal));
+                }
+            } else {
+                card = legal.get(rnd.nextInt(legal.size()));
+                gen.send("POST", "/play", params("trickNum", trickNum, "trickSeq", trickSeq,
+                                                 "pos", pos, "card", card));
+            }
+            hand.remove(Integer.valueOf(card));
+            if (leadSuit < 0) {
+                leadSuit = suit(card);
+            }
+            int val = value(card, leadSuit);
+            if (val > winVal) {
+                winPos = pos;
+                winVal = val;
+            }
+        }
+        gen.send("PATCH", "/trick", params("trickNum", trickNum, "status", "complete",
+                                           "info", "winner " + winPos));
+        return winPos;
+    }
+}
@@ -0,0 +1,172 @@
+package game.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ *  Load generator for the endpoint server, emulating the `euchre-plt` coordinator
+ *
+ *  Usage: java -jar loadgen.jar [name=value ...]
+ *  - url      - endpoint server base URL (default: http://localhost:8080)
+ *  - sessions - number of concurrent sessions (default: 4)
+ *  - games    - games per session (default: 10)
+ *  - deals    - deals per game (default: 8)
+ *  - warmup   - games per session not included in stats (default: 1)
+ *  - local    - local (server) positions, e.g. "0,2", or "random" for a random mix per
+ *               deal (default: 0,1,2,3)
+ *  - seed     - random seed for deals and remote player moves (default: 1)
+ *
+ *  Reports deals/sec and latency histograms by endpoint (method + path) at the end of the
+ *  run (warmup excluded).
+ */
+public class LoadGenerator
+{
+    static final long MAX_LATENCY_US = 60_000_000L;
+
+    String       baseUrl;
+    HttpClient   client = HttpClient.newBuilder()
+                                    .version(HttpClient.Version.HTTP_1_1)
+                                    .connectTimeout(Duration.ofSeconds(10))
+                                    .build();
+    ObjectMapper mapper = new ObjectMapper();
+
+    Map<String, Histogram> latency = new ConcurrentHashMap<String, Histogram>();
+    AtomicLong             deals   = new AtomicLong();
+
+    public LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    // ---------- HTTP ---------- //
+
+    JsonNode send(String method, String path, Object body) {
+        HttpRequest.BodyPublisher pub = HttpRequest.BodyPublishers.noBody();
+        try {
+            if (body != null) {
+                pub = HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body));
+            }
+            HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                         .header("Content-Type", "application/json")
+                                         .method(method, pub)
+                                         .build();
+            long start = System.nanoTime();
+            HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
+            long elapsed = (System.nanoTime() - start) / 1000;
+            if (resp.statusCode() != 200) {
+                throw new IllegalStateException(String.format("%s %s: status %d (%s)", method,
+                                                              path, resp.statusCode(), resp.body()));
+            }
+            String key = method + " " + path.replaceFirst("\\?.*", "");
+            latency.computeIfAbsent(key, k -> new ConcurrentHistogram(MAX_LATENCY_US, 3))
+                   .recordValue(Math.min(elapsed, MAX_LATENCY_US));
+            return mapper.readTree(resp.body());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    JsonNode get(String path, Map<String, Object> params) {
+        StringBuilder sb = new StringBuilder(path);
+        char sep = '?';
+        for (Map.Entry<String, Object> e : params.entrySet()) {
+            sb.append(sep).append(e.getKey()).append('=').append(e.getValue());
+            sep = '&';
+        }
+        return send("GET", sb.toString(), null);
+    }
+
+    // ---------- Report ---------- //
+
+    void report(double seconds) {
+        System.out.println(String.format("deals: %d, elapsed: %.1f s, deals/sec: %.1f",
+                                         deals.get(), seconds, deals.get() / seconds));
+        System.out.println(String.format("%-14s %9s %9s %9s %9s %9s %9s %9s", "endpoint", "count",
+                                         "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<String, Histogram> e : new TreeMap<String, Histogram>(latency).entrySet()) {
+            Histogram h = e.getValue();
+            System.out.println(String.format("%-14s %9d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                                             e.getKey(), h.getTotalCount(),
+                                             h.getMean() / 1000.0,
+                                             h.getValueAtPercentile(50.0) / 1000.0,
+                                             h.getValueAtPercentile(90.0) / 1000.0,
+                                             h.getValueAtPercentile(99.0) / 1000.0,
+                                             h.getValueAtPercentile(99.9) / 1000.0,
+                                             h.getMaxValue() / 1000.0));
+        }
+        System.out.println("(latencies in ms)");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<String, String>();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("bad argument (expecting name=value): " + arg);
+            }
+            opts.put(kv[0], kv[1]);
+        }
+        String url      = opts.getOrDefault("url", "http://localhost:8080");
+        int    sessions = Integer.parseInt(opts.getOrDefault("sessions", "4"));
+        int    games    = Integer.parseInt(opts.getOrDefault("games", "10"));
+        int    deals    = Integer.parseInt(opts.getOrDefault("deals", "8"));
+        int    warmup   = Integer.parseInt(opts.getOrDefault("warmup", "1"));
+        String local    = opts.getOrDefault("local", "0,1,2,3");
+        long   seed     = Long.parseLong(opts.getOrDefault("seed", "1"));
+        if (warmup < 0 || warmup >= games) {
+            // stats would include warmup traffic (interval never restarted)
+            throw new IllegalArgumentException(String.format("warmup (%d) must be less than " +
+                                                             "games (%d)", warmup, games));
+        }
+
+        LoadGenerator gen = new LoadGenerator(url);
+        System.out.println(String.format("LoadGenerator: %s, %d sessions x %d games x %d deals " +
+                                         "(%d warmup games), local positions: %s",
+                                         url, sessions, games, deals, warmup, local));
+
+        ExecutorService pool    = Executors.newFixedThreadPool(sessions);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        AtomicLong      start   = new AtomicLong(System.nanoTime());
+        AtomicLong      warm    = new AtomicLong(sessions);
+        for (int i = 0; i < sessions; i++) {
+            Coordinator coord = new Coordinator(gen, String.format("lg-%d-%d", i, System.nanoTime()),
+                                                local, seed + i);
+            futures.add(pool.submit(() -> {
+                coord.run(games, deals, warmup, () -> {
+                    // stats interval starts when the last session is warmed up
+                    if (warm.decrementAndGet() == 0) {
+                        gen.latency.clear();
+                        gen.deals.set(0);
+                        start.set(System.nanoTime());
+                    }
+                });
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+        gen.report((System.nanoTime() - start.get()) / 1e9);
+    }
+}
@@ -0,0 +1,57 @@
+#!/bin/bash
+#
+# Startup benchmark - time from JVM launch to first successful POST /session response,
+# for the standard jar and the fast-start build (`mvn -Pfast-start package`)
+#
+# Usage: scripts/startup-bench.sh [runs] [port]
+#
+
+RUNS=${1:-5}
+PORT=${2:-8080}
+TARGET=$(dirname $0)/../target
+JAR=$(ls $TARGET/endpoint-*.jar | grep -v original | head -1)
+FAST_DIR=$TARGET/fast-start
+FAST_JAR=$FAST_DIR/$(basename $JAR)
+
+# measure one startup (command line given as args), prints elapsed ms
+time_startup() {
+    local token=bench-$RANDOM-$RANDOM
+    local start=$(date +%s%N)
+    "$@" --server.port=$PORT > /dev/null 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null -X POST -H 'Content-Type: application/json' \
+               -d "{\"token\": \"$token\", \"status\": \"new\"}" \
+               http://localhost:$PORT/session; do
+        if ! kill -0 $pid 2> /dev/null; then
+            echo "startup failed: $*" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    local end=$(date +%s%N)
+    kill $pid
+    wait $pid 2> /dev/null
+    echo $(( (end - start) / 1000000 ))
+}
+
+# run benchmark for a configuration, prints individual and mean times
+bench() {
+    local name=$1
+    shift
+    local total=0
+    local times=""
+    for i in $(seq $RUNS); do
+        local ms=$(time_startup "$@") || exit 1
+        times="$times $ms"
+        total=$((total + ms))
+    done
+    printf "%-10s mean %5d ms  (runs:%s)\n" $name $((total / RUNS)) "$times"
+}
+
+bench standard java -jar $JAR
+if [ -f $FAST_DIR/endpoint.jsa ]; then
+    bench fast-start java -XX:SharedArchiveFile=$FAST_DIR/endpoint.jsa -Dspring.aot.enabled=true \
+          -jar $FAST_JAR
+else
+    echo "fast-start build not found (run: mvn -Pfast-start package)"
+fi
@@ -0,0 +1,84 @@
+package game;
+
+/**
+ *  Strategy implementation for the EuchreBeta engine
+ *
+ *  Also serves as the adapter for EuchreBeta builds loaded from a jar (the classes are
+ *  defined by the `StrategyLoader` for the jar, so they bind to its engine classes).
+ */
+public class BetaStrategy implements EngineStrategy
+{
+    public EngineGame newGame(int[] points, int gamePts) {
+        return new BetaGame(this, points, gamePts);
+    }
+
+    static class BetaGame implements EngineGame
+    {
+        BetaStrategy strategy;  // keeps strategy (and its loader) reachable while in use
+        Game         game;
+        GameState    gameState;
+
+        BetaGame(BetaStrategy strategy, int[] points, int gamePts) {
+            this.strategy  = strategy;
+            this.game      = new Game();
+            this.gameState = new GameState(points, gamePts);
+        }
+
+        public EngineDeal newDeal(int[] cards, int dealerPos, int[] win, int[] lead, int[] trick) {
+            return new BetaDeal(this, cards, dealerPos, win, lead, trick);
+        }
+    }
+
+    static class BetaDeal implements EngineDeal
+    {
+        BetaGame  parent;
+        Deal      deal;
+        DealState dealState;
+
+        BetaDeal(BetaGame parent, int[] cards, int dealerPos, int[] win, int[] lead, int[] trick) {
+            this.parent    = parent;
+            this.deal      = new Deal(cards, dealerPos);
+            this.dealState = new DealState(win, lead, trick);
+            // start bidding phase of the deal
+            this.deal.prepareBid();
+        }
+
+        public int[] bid(int pos) {
+            return deal.bidder(pos, parent.gameState);
+        }
+
+        public int[] bid(int pos, int docall) {
+            return deal.bidder(pos, parent.gameState, docall);
+        }
+
+        public int swap(int declarer, int lone) {
+            return deal.swapCard(declarer, lone, 0);
+        }
+
+        public int swap(int declarer, int lone, int cardpos) {
+            return deal.swapCard(declarer, lone, 0, cardpos);
+        }
+
+        public void startPlay(int declarer, int trump, int lone, int round) {
+            // start play phase of the deal
+            deal.preparePlay(declarer, trump, lone, round);
+            // establish name of left bower
+            Game.cardname[trump][6] = "Jack of " + Game.suitx[3-trump];
+            deal.validateHands();
+        }
+
+        public void startTrick(int trickNum, int[] order) {
+            deal.pos[trickNum+1] = order;
+        }
+
+        public int play(int playnum, int playCard) {
+            playCard = deal.player(playnum, dealState, playCard);
+            deal.validateHands();
+            return playCard;
+        }
+
+        public void endTrick(int trickNum) {
+            deal.updatePlay(trickNum);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ *  Append-only columnar store for completed deals (for offline analytics)
+ *
+ *  Completed deals are buffered in memory and written out in batches, one file per batch
+ *  (`deals-NNNNNN.col`).  All column values are single bytes (signed, -1 = n/a).
+ *
+ *  Batch file layout:
+ *  - Header - 16 bytes
+ *    - 0-3  : magic ("EPDL")
+ *    - 4-7  : format version
+ *    - 8-11 : number of deals in the batch (n)
+ *    - 12-15: reserved
+ *  - Columns - contiguous, in the following order:
+ *    - cards   : n * 24 (deck cards, same layout as Deal POST request)
+ *    - bids    : n (bid sequence number of declaration, 0-7; or -1 if all passed)
+ *    - declarer: n (-1 if all passed)
+ *    - trump   : n (-1 if all passed)
+ *    - lone    : n (-1 or declarer)
+ *    - swap    : n (card exchanged for turn card, or -1)
+ *    - winners : n * 5 (trick winner positions, by trick)
+ *    - tricks  : n * 4 (tricks won, by position)
+ */
+class DealStore
+{
+    static final int MAGIC      = 0x4550444c;  // "EPDL"
+    static final int VERSION    = 1;
+    static final int HEADER_LEN = 16;
+
+    // column indexes and widths (bytes per deal), in file order
+    static final int COL_CARDS    = 0;
+    static final int COL_BIDS     = 1;
+    static final int COL_DECLARER = 2;
+    static final int COL_TRUMP    = 3;
+    static final int COL_LONE     = 4;
+    static final int COL_SWAP     = 5;
+    static final int COL_WINNERS  = 6;
+    static final int COL_TRICKS   = 7;
+    static final int[] WIDTHS = {24, 1, 1, 1, 1, 1, 5, 4};
+
+    Path     dir;
+    int      batchSize;
+    int      batchNum;   // next batch file number
+    int      count;      // deals in current batch
+    byte[][] columns;
+
+    public DealStore(Path dir, int batchSize) {
+        System.out.println(String.format("DealStore(%s, %d)", dir, batchSize));
+        assert batchSize > 0 : "bad batch size: " + batchSize;
+        this.dir       = dir;
+        this.batchSize = batchSize;
+        this.count     = 0;
+        this.columns   = new byte[WIDTHS.length][];
+        for (int c = 0; c < WIDTHS.length; c++) {
+            this.columns[c] = new byte[WIDTHS[c] * batchSize];
+        }
+
+        try {
+            Files.createDirectories(dir);
+            this.batchNum = nextBatchNum(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     *  Append a completed deal (from game history) to the current batch (written to disk
+     *  when full)
+     */
+    public synchronized void append(GameHistory hist, int d) {
+        int i = count;
+        for (int j = 0; j < 24; j++) {
+            columns[COL_CARDS][i * 24 + j] = (byte)hist.card(d, j);
+        }
+        columns[COL_BIDS][i]     = (byte)hist.bids(d);
+        columns[COL_DECLARER][i] = (byte)hist.declarer(d);
+        columns[COL_TRUMP][i]    = (byte)hist.trump(d);
+        columns[COL_LONE][i]     = (byte)hist.lone(d);
+        columns[COL_SWAP][i]     = (byte)hist.swap(d);
+        for (int tr = 0; tr < 5; tr++) {
+            int winpos = tr < hist.numTricks(d) ? hist.trickWinner(d, tr) : -1;
+            columns[COL_WINNERS][i * 5 + tr] = (byte)winpos;
+            if (winpos >= 0) {
+                columns[COL_TRICKS][i * 4 + winpos]++;
+            }
+        }
+        if (++count == batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     *  Write out current batch (if non-empty); file is renamed into place when complete,
+     *  so readers never see a partial batch
+     */
+    public synchronized void flush() {
+        if (count == 0) {
+            return;
+        }
+        int len = HEADER_LEN;
+        for (int c = 0; c < WIDTHS.length; c++) {
+            len += WIDTHS[c] * count;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0);
+        for (int c = 0; c < WIDTHS.length; c++) {
+            buf.put(columns[c], 0, WIDTHS[c] * count);
+        }
+        buf.flip();
+
+        Path file = dir.resolve(String.format("deals-%06d.col", batchNum));
+        Path temp = dir.resolve(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.CREATE,
+                                               StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println(String.format("DealStore.flush(): %d deals to %s", count, file));
+
+        batchNum++;
+        count = 0;
+        for (byte[] col : columns) {
+            Arrays.fill(col, (byte)0);
+        }
+    }
+
+    static List<Path> batchFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().matches("deals-\\d+\\.col"))
+                        .sorted()
+                        .toList();
+        }
+    }
+
+    // next unused batch file number (highest existing + 1, so gaps in numbering never
+    // cause an existing batch to be overwritten)
+    static int nextBatchNum(Path dir) throws IOException {
+        int next = 0;
+        for (Path file : batchFiles(dir)) {
+            String name = file.getFileName().toString();
+            int    num  = Integer.parseInt(name.substring(6, name.length() - 4));
+            next = Math.max(next, num + 1);
+        }
+        return next;
+    }
+
+    // ---------- Read/Query API ---------- //
+
+    /**
+     *  Read-only view of a batch file (memory-mapped); column values are read directly
+     *  from the mapped buffer
+     */
+    static class Batch
+    {
+        ByteBuffer buf;
+        int        size;
+        int[]      offsets = new int[WIDTHS.length];
+
+        Batch(Path file) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                this.buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            assert buf.getInt(0) == MAGIC : "bad magic number: " + file;
+            assert buf.getInt(4) == VERSION : "bad format version: " + file;
+            this.size = buf.getInt(8);
+            int offset = HEADER_LEN;
+            for (int c = 0; c < WIDTHS.length; c++) {
+                offsets[c] = offset;
+                offset += WIDTHS[c] * size;
+            }
+        }
+
+        public int size()                 { return size; }
+        public int card(int i, int j)     { return buf.get(offsets[COL_CARDS] + i * 24 + j); }
+        public int bids(int i)            { return buf.get(offsets[COL_BIDS] + i); }
+        public int declarer(int i)        { return buf.get(offsets[COL_DECLARER] + i); }
+        public int trump(int i)           { return buf.get(offsets[COL_TRUMP] + i); }
+        public int lone(int i)            { return buf.get(offsets[COL_LONE] + i); }
+        public int swap(int i)            { return buf.get(offsets[COL_SWAP] + i); }
+        public int winner(int i, int tr)  { return buf.get(offsets[COL_WINNERS] + i * 5 + tr); }
+        public int tricks(int i, int pos) { return buf.get(offsets[COL_TRICKS] + i * 4 + pos); }
+
+        public int bidRound(int i) {
+            return bids(i) < 0 ? -1 : bids(i) / 4;
+        }
+
+        // tricks won by declaring partnership
+        public int dclrTricks(int i) {
+            int dclr = declarer(i);
+            return dclr < 0 ? 0 : tricks(i, dclr) + tricks(i, (dclr + 2) % 4);
+        }
+
+        public boolean euchred(int i) {
+            return declarer(i) >= 0 && dclrTricks(i) < 3;
+        }
+    }
+
+    static class Reader
+    {
+        ArrayList<Batch> batches = new ArrayList<Batch>();
+
+        public Reader(Path dir) {
+            try {
+                for (Path file : batchFiles(dir)) {
+                    batches.add(new Batch(file));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public List<Batch> batches() {
+            return batches;
+        }
+
+        public long size() {
+            long size = 0;
+            for (Batch b : batches) {
+                size += b.size();
+            }
+            return size;
+        }
+
+        /**
+         *  Euchre rate by declarer (bid) position and trump suit - [pos][suit]; NaN if no
+         *  deals declared for the combination
+         */
+        public double[][] euchreRates() {
+            long[][] declared = new long[4][4];
+            long[][] euchred  = new long[4][4];
+            for (Batch b : batches) {
+                for (int i = 0; i < b.size(); i++) {
+                    int dclr = b.declarer(i);
+                    if (dclr < 0) {
+                        continue;
+                    }
+                    int suit = b.trump(i);
+                    declared[dclr][suit]++;
+                    if (b.euchred(i)) {
+                        euchred[dclr][suit]++;
+                    }
+                }
+            }
+            double[][] rates = new double[4][4];
+            for (int pos = 0; pos < 4; pos++) {
+                for (int suit = 0; suit < 4; suit++) {
+                    rates[pos][suit] = declared[pos][suit] == 0 ? Double.NaN :
+                        (double)euchred[pos][suit] / declared[pos][suit];
+                }
+            }
+            return rates;
+        }
+    }
+}
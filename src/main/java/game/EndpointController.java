@@ -1,14 +1,26 @@
 package game;
 
-import game.Game;
-import game.Deal;
-import game.GameState;
-import game.DealState;
+import game.EngineStrategy.EngineGame;
+import game.EngineStrategy.EngineDeal;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
+import jakarta.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -38,44 +50,154 @@ class Status
     public static final String COMPLETE = "complete";
 }
 
-// hardwired protocol mapping for cards and suits
-class Protocol
+// ========== Endpoint Classes ========== //
+
+class EpSession
 {
-    // 9C, 9D, 9H, 9S, 10C, ..., KS, AC, AD, AH, AS
-    static final int[] cards = { 3,  2,  1,  0,
-                                 7,  6,  5,  4,
-                                11, 10,  9,  8,
-                                15, 14, 13, 12,
-                                19, 18, 17, 16,
-                                23, 22, 21, 20};
-    // Clubs, Diamonds, Hearts, Spades
-    static final int[] suits = {3, 2, 1, 0};
+    String          token;
+    String          status;
+
+    Protocol        protocol;
+    String          strategyName;
+    EngineStrategy  strategy;
+    ShadowEvaluator shadow;          // null if not shadowing
+    EngineStrategy  shadowStrategy;
+    EpMetrics       metrics;
+    int             deadline;  // move decision deadline (ms), 0 for none
+    boolean         async;     // queue notifications (acked without waiting for engine)
+    ExecutorService engine;    // runs engine calls, if deadline or async is set
+    int             orphanWait;  // max wait (ms) for an orphaned call before a new deal
+    volatile Future<?> pending;  // last queued notification
+    // first queued notification failure (engine deal state is not trusted after it), cleared
+    // when the next deal or game starts
+    volatile Throwable failure;
+    // done when an engine call that overran its deadline (orphaned) has finished
+    volatile Future<?> orphan;
+
+    ArrayList<EpGame> gameList = new ArrayList<EpGame>();
 
-    public int[] getCards() {
-        return cards;
+    public EpSession(SessionInfo info, String status, StrategyRegistry.Entry strategy,
+                     EpMetrics metrics, int deadline, int orphanWait, boolean async) {
+        System.out.println(String.format("EpSession(%s, %s, %s)", info.token(), status,
+                                         strategy.name()));
+        this.token        = info.token();
+        this.status       = status;  // ignore `info.status()`
+        this.protocol     = Protocol.get(info.protocol());  // shared (immutable)
+        this.strategyName = strategy.name();
+        this.strategy     = strategy.strategy();
+        this.metrics      = metrics;
+        this.deadline     = info.moveDeadline() != null ? info.moveDeadline() : deadline;
+        this.orphanWait   = orphanWait;
+        this.async        = async;
+        if (this.deadline > 0 || this.async) {
+            this.engine = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "engine-" + this.token);
+                t.setDaemon(true);
+                return t;
+            });
+        }
     }
 
-    public int[] getSuits() {
-        return suits;
+    /**
+     *  Record an engine call that overran the move deadline (it is interrupted, but an
+     *  engine search may not stop); the engine thread is kept, so nothing else touches the
+     *  engine until the call finishes (`orphan` is done once the thread gets to it)
+     */
+    public void orphaned(String move) {
+        metrics.orphanStart(move);
+        orphan = engine.submit(metrics::orphanEnd);
     }
-}
 
-// ========== Endpoint Classes ========== //
+    // true while an orphaned engine call is still running
+    public boolean engineBusy() {
+        Future<?> last = orphan;
+        return last != null && !last.isDone();
+    }
 
-class EpSession
-{
-    String   token;
-    String   status;
+    /**
+     *  Wait (up to `orphanWait`) for an orphaned engine call to finish, before creating
+     *  engine objects; returns false if it is still running (next deal is played without
+     *  the engine)
+     */
+    public boolean awaitEngine() {
+        Future<?> last = orphan;
+        if (last == null) {
+            return true;
+        }
+        try {
+            last.get(orphanWait, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-    Protocol protocol;
+    /**
+     *  Run notification processing (anything that updates deal state); in async mode, this
+     *  is queued on the engine thread (processed in order), otherwise run inline
+     *
+     *  While an orphaned call is running, notifications are also run inline (the current
+     *  deal is detached, so they do not touch the engine, and must not wait behind it)
+     */
+    public void queue(Runnable task) {
+        if (!async || engineBusy()) {
+            task.run();
+            return;
+        }
+        pending = engine.submit(() -> {
+            if (failure != null) {
+                return;  // skip remaining notifications for the failed deal
+            }
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                System.out.println(String.format("Queued notification failed (%s): %s", token, e));
+                failure = e;
+            }
+        });
+    }
 
-    ArrayList<EpGame> gameList = new ArrayList<EpGame>();
+    /**
+     *  Wait for queued notifications to be processed (must be called before reading or
+     *  updating deal state outside of the queue); throws if any queued notification failed
+     *  since the current deal started
+     */
+    public void drain() {
+        await();
+        Throwable e = failure;
+        if (e != null) {
+            throw new IllegalStateException("queued notification failed: " + e, e);
+        }
+    }
 
-    public EpSession(SessionInfo info, String status) {
-        System.out.println(String.format("EpSession(%s, %s)", info.token(), status));
-        this.token    = info.token();
-        this.status   = status;  // ignore `info.status()`
-        this.protocol = new Protocol();
+    /**
+     *  Wait for queued notifications, and clear any failure (called when a new deal or game
+     *  replaces the failed deal state)
+     */
+    public void reset() {
+        await();
+        failure = null;
+    }
+
+    void await() {
+        Future<?> last = pending;
+        if (last == null) {
+            return;
+        }
+        try {
+            last.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void complete() {
+        if (engine != null) {
+            await();
+            engine.shutdown();
+        }
     }
 }
 
@@ -83,25 +205,42 @@ class EpGame
 {
     static final int GAME_PTS = 10;
 
+    EpSession parent;
     String    token;
     int       gameNum;
     String    status;
 
-    Game      game;
-    int[]     points;
-    GameState gameState;
+    // held for the life of the game (and its deals, through `EpDeal.parent`), so queued or
+    // orphaned engine calls keep the strategy reachable
+    EngineStrategy strategy;
+    EngineGame game;        // created with the first deal (see `engineGame`)
+    EngineGame shadowGame;  // null if not shadowing
+    int[]      points;
 
-    ArrayList<EpDeal> dealList = new ArrayList<EpDeal>();
+    EpDeal      activeDeal;  // current (or last completed) deal
+    int         dealCount;   // deals started
+    GameHistory history = new GameHistory();
 
-    public EpGame(GameInfo info, String status) {
+    public EpGame(EpSession parent, EngineStrategy strategy, GameInfo info, String status) {
         System.out.println(String.format("EpGame(%d, %s)", info.gameNum(), status));
+        this.parent    = parent;
         this.token     = info.token();
         this.gameNum   = info.gameNum();
         this.status    = status;  // ignore `info.status()`
 
-        this.game      = new Game();
         this.points    = new int[4];
-        this.gameState = new GameState(this.points, GAME_PTS);
+        this.strategy  = strategy;
+        if (parent != null && parent.shadow != null) {
+            this.shadowGame = parent.shadowStrategy.newGame(this.points.clone(), GAME_PTS);
+        }
+    }
+
+    // engine game, created on first use (only when no orphaned engine call is running)
+    EngineGame engineGame() {
+        if (game == null) {
+            game = strategy.newGame(points, GAME_PTS);
+        }
+        return game;
     }
 }
 
@@ -146,13 +285,15 @@ class EpDeal
     int[]     cards;
 
     int[]     cardMap;
-    Deal      deal;
+    int[]     engineCards;  // copy of `cards` given to the engine (rewritten by swap)
+    EngineDeal deal;
+    ShadowEvaluator.ShadowDeal shadow;  // null if not shadowing
     // one-based indexing for subscript match (trick number), fake value for index 0
     // (first lead)
     int[]     win   = {(DEALER_POS + 1) % 4, -1, -1, -1, -1, -1};
     int[]     lead  = {-1, -1, -1, -1, -1, -1};  // suit led;
     int[]     trick = new int[4];  // tricks won (initialized to zeros);
-    DealState dealState;
+    int[][]   pos   = new int[6][];  // play order (positions) by trick, one-based
     // bidding stuff
     int       curBid;    // position
     int       lone;      // -1 or dclr
@@ -160,10 +301,14 @@ class EpDeal
     int       fintp;     // 4 (pass) or suit
     int       call;      // 0 - pass, 1 - call, 2 - alone
     int       cswap;
+    int       swapCard;  // card exchanged for turn card, or -1
     // playing stuff
     int       curTrick;  // 0-4
+    // set if engine overran move deadline (remainder of deal is played without engine)
+    volatile boolean detached;
 
-    ArrayList<EpTrick> trickList = new ArrayList<EpTrick>();
+    EpTrick   activeTrick;  // current (or last completed) trick
+    int       trickCount;   // tricks started
 
     public EpDeal(EpGame parent, DealInfo info, String status) {
         System.out.println(String.format("EpDeal(%d, %s)", info.dealNum(), status));
@@ -178,8 +323,25 @@ class EpDeal
             this.cardMap[this.cards[i]] = i;
         }
 
-        this.deal     = new Deal(this.cards, DEALER_POS);
-        this.dealState = new DealState(win, lead, trick);
+        // starts bidding phase of the deal (engine and shadow get their own copies of the
+        // cards, so that late engine calls cannot change `cards`); if an orphaned engine
+        // call is still running, the deal is played without the engine
+        this.engineCards = this.cards.clone();
+        EpSession sess = parent.parent;
+        if (sess != null && sess.engineBusy()) {
+            System.out.println(String.format("Engine busy (deal %d), playing without engine",
+                                             dealNum));
+            this.detached = true;
+        } else {
+            this.deal = parent.engineGame().newDeal(this.engineCards, DEALER_POS, win, lead,
+                                                    trick);
+        }
+        if (parent.shadowGame != null) {
+            String label  = String.format("%s/%d/%d", token, gameNum, dealNum);
+            this.shadow   = parent.parent.shadow.newDeal(parent.parent.shadowStrategy,
+                                                         parent.shadowGame, label,
+                                                         this.cards.clone(), DEALER_POS);
+        }
         // bidding stuff
         this.curBid   = -1;
         this.lone     = -1;
@@ -187,27 +349,122 @@ class EpDeal
         this.fintp    = -1;
         this.call     = -1;
         this.cswap    = -1;
+        this.swapCard = -1;
         // playing stuff
         this.curTrick = -1;
+    }
 
-        // start bidding phase of the deal
-        this.deal.prepareBid();
+    /**
+     *  Run engine decision, subject to session move deadline; if the deadline is exceeded,
+     *  the fallback decision is returned and the deal is detached from the engine (since
+     *  the engine will have recorded its own decision)
+     *
+     *  NOTE: `call` must not update deal state directly (return any results instead), since
+     *  an overrunning call may still complete after the fallback is returned; the call is
+     *  left running on the engine thread (orphaned), which stays busy until it finishes
+     */
+    <T> T decide(String move, Supplier<T> call, Supplier<T> fallback) {
+        if (detached) {
+            return fallback.get();
+        }
+        EpSession sess = parent.parent;
+        Supplier<T> timed = sess == null ? call :
+            () -> sess.metrics.engineCall(move, sess.strategyName, call);
+        if (sess == null || sess.engine == null) {
+            return timed.get();
+        }
+        if (sess.engineBusy()) {
+            // do not queue behind an orphaned call (or touch the engine while it runs)
+            detached = true;
+            return fallback.get();
+        }
+        Future<T> future = sess.engine.submit(timed::get);
+        try {
+            if (sess.deadline == 0) {
+                return future.get();
+            }
+            return future.get(sess.deadline, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.out.println(String.format("Deadline exceeded for %s (deal %d), using fallback",
+                                             move, dealNum));
+            detached = true;
+            future.cancel(true);
+            sess.orphaned(move);
+            sess.metrics.deadlineHit(move);
+            return fallback.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // first round bid per equity table, or null if no table (or entry)
+    Boolean tableBid(int pos) {
+        EquityTable eqt = EquityTable.shared;
+        return eqt != null && pos < 4 ? eqt.orderUp(hand(pos), cards[20], pos) : null;
     }
 
     public int[] getBid() {
         System.out.println("getBid()");
-        int[] bidx = deal.bidder(++curBid, parent.gameState);
-        return processBid(bidx);
+        int pos = ++curBid;
+        Boolean order = tableBid(pos);
+        if (order != null && EquityTable.shared.mode == EquityTable.Mode.FAST) {
+            // first round - equity table decides (shadow is notified, not compared)
+            int   docall = order ? 1 + (cards[20] % 4) * 10 : 0;
+            int[] bidx   = engineBid(pos, docall);
+            if (shadow != null) {
+                shadow.notifyBid(pos, docall);
+            }
+            return processBid(bidx);
+        }
+        int[] bidx = decide("bid", () -> deal.bid(pos),
+                            () -> fallbackBid(pos));
+        if (order != null && !detached) {
+            EquityTable.shared.crossCheck(order, bidx[3] > 0);
+        }
+        return processBid(shadowBid(pos, bidx));
+    }
+
+    // mirror bid decision to shadow (compared, unless it is a fallback decision)
+    int[] shadowBid(int pos, int[] bidx) {
+        if (shadow == null) {
+            return bidx;
+        }
+        if (detached) {
+            shadow.notifyBid(pos, bidx[3] > 0 ? bidx[3] + bidx[2] * 10 : 0);
+        } else {
+            shadow.bid(pos, bidx);
+        }
+        return bidx;
     }
 
     public int[] notifyBid(int suit, boolean alone) {
         System.out.println(String.format("notifyBid(%d, %b)", suit, alone));
         int call   = suit < 0 ? 0 : (alone ? 2 : 1);
         int docall = call > 0 ? (call + suit * 10) : 0;
-        int[] bidx = deal.bidder(++curBid, parent.gameState, docall);
+        int[] bidx = engineBid(++curBid, docall);
+        if (shadow != null) {
+            shadow.notifyBid(curBid, docall);
+        }
         return processBid(bidx);
     }
 
+    // pass specified bid to engine (or construct equivalent result, if detached)
+    int[] engineBid(int pos, int docall) {
+        if (!detached) {
+            return deal.bid(pos, docall);
+        }
+        int call = docall % 10;
+        int suit = docall / 10;
+        return call == 0 ? new int[] {-1, -1, 4, 0} :
+            new int[] {call == 2 ? pos : -1, pos, suit, call};
+    }
+
+    // cheap fallback - order up per equity table (if available), otherwise pass
+    int[] fallbackBid(int pos) {
+        Boolean order = tableBid(pos);
+        return engineBid(pos, order != null && order ? 1 + (cards[20] % 4) * 10 : 0);
+    }
+
     public int[] processBid(int[] bidx) {
         if (bidx[3] > 0) {
             lone     = bidx[0];  // -1 or dclr
@@ -219,34 +476,120 @@ class EpDeal
         return bidx;
     }
 
+    public int[] hand(int pos) {
+        return Arrays.copyOfRange(cards, pos * 5, pos * 5 + 5);
+    }
+
     public int bidRound() {
         return curBid / 4;
     }
 
-    public int getSwap() {
+    // only card in list (ignoring -1 entries), or -1 if there is a choice
+    static int forcedCard(List<Integer> cardList) {
+        int forced = -1;
+        for (int card : cardList) {
+            if (card < 0) {
+                continue;
+            }
+            if (forced >= 0) {
+                return -1;
+            }
+            forced = card;
+        }
+        return forced;
+    }
+
+    // record forced play (engine not consulted)
+    void forcedPlay(int trickNum) {
+        if (parent.parent != null) {
+            parent.parent.metrics.forcedPlay(trickNum);
+        }
+    }
+
+    public int getSwap(List<Integer> swappableCards) {
         System.out.println("getSwap()");
-        cswap = deal.swapCard(declarer, lone, 0);
-        return cards[20];
+        // returns engine swap result and card exchanged (engine puts it in the turn card slot)
+        int[] swap = decide("swap", () -> new int[] {deal.swap(declarer, lone), engineCards[20]},
+                            () -> new int[] {-1, fallbackSwap(swappableCards)});
+        cswap    = swap[0];
+        swapCard = swap[1];
+        if (shadow != null) {
+            if (detached) {
+                shadow.notifySwap(declarer, lone, cardMap[swapCard]);
+            } else {
+                shadow.swap(declarer, lone, cswap);
+            }
+        }
+        return swapCard;
     }
 
     public int notifySwap(int card) {
         int cardpos = cardMap[card];
         assert cardpos >= 15 && cardpos <= 19;
         System.out.println(String.format("notifySwap(%d)", card));
-        cswap = deal.swapCard(declarer, lone, 0, cardpos);
-        return cards[20];
+        if (!detached) {
+            cswap = deal.swap(declarer, lone, cardpos);
+        }
+        if (shadow != null) {
+            shadow.notifySwap(declarer, lone, cardpos);
+        }
+        swapCard = card;
+        return engineCards[20];
+    }
+
+    // cheap fallback - lowest card (non-trump, if possible) in dealer's hand
+    int fallbackSwap(List<Integer> swappableCards) {
+        List<Integer> hand = swappableCards;
+        if (hand == null || hand.isEmpty()) {
+            hand = Arrays.stream(hand(DEALER_POS)).boxed().toList();
+        }
+        return lowestCard(hand);
+    }
+
+    // lowest valued card in list (ignoring -1 entries), trumps rank above all others
+    int lowestCard(List<Integer> cardList) {
+        int lowCard = -1;
+        int lowVal  = Integer.MAX_VALUE;
+        for (int card : cardList) {
+            if (card < 0) {
+                continue;
+            }
+            int playCard = toPlayCard(card);
+            int val      = playCard % 10 == fintp ? 10 + playCard / 10 : playCard / 10;
+            if (val < lowVal) {
+                lowCard = card;
+                lowVal  = val;
+            }
+        }
+        assert lowCard >= 0 : "no cards to choose from";
+        return lowCard;
+    }
+
+    // convert card (0-23) to engine play representation (suit + rank * 10, with bowers
+    // ranked above ace)
+    int toPlayCard(int card) {
+        return Protocol.PLAY_CARDS[fintp + 1][card];
     }
 
     public void startPlay() {
         System.out.println("startPlay()");
-        // start play phase of the deal
-        deal.preparePlay(declarer, fintp, lone, bidRound());
-        // establish name of left bower
-        Game.cardname[fintp][6] = "Jack of " + Game.suitx[3-fintp];
-        deal.validateHands();
+        if (shadow != null) {
+            shadow.startPlay(declarer, fintp, lone, bidRound());
+        }
+        if (detached) {
+            return;
+        }
+        deal.startPlay(declarer, fintp, lone, bidRound());
     }
 
     public void complete() {
+        parent.history.addDeal(this);
+        if (shadow != null) {
+            shadow.complete();
+        }
+        // release engine state (deal remains in game history)
+        deal   = null;
+        shadow = null;
     }
 }
 
@@ -266,6 +609,7 @@ class EpTrick
     int    leadsuit;
     int    winpos;
     int    winval;
+    int[]  cards = {-1, -1, -1, -1};  // cards played (by play sequence)
 
     public EpTrick(EpDeal parent, TrickInfo info, String status) {
         System.out.println(String.format("EpTrick(%d, %s)", info.trickNum(), status));
@@ -283,37 +627,47 @@ class EpTrick
         this.leadsuit = -1;
         this.winpos   = -1;
         this.winval   = -1;
+    }
 
+    public void start() {
         // establish shortcuts for this trick
         int tr    = trickNum;
         int curaa = parent.win[tr];  // lead (previous winner)
         int curbb = (curaa+1)%4;     // second to play
         int curcc = (curaa+2)%4;     // third to play
         int curdd = (curaa+3)%4;     // fouth to play
-        parent.deal.pos[tr+1] = new int[] {curaa, curbb, curcc, curdd};
+        parent.pos[tr+1] = new int[] {curaa, curbb, curcc, curdd};
+        curLead = curaa;
+        if (!parent.detached) {
+            parent.deal.startTrick(tr, parent.pos[tr+1]);
+        }
+        if (parent.shadow != null) {
+            // copy, since the shadow runs the trick on another thread
+            parent.shadow.startTrick(tr, parent.pos[tr+1].clone());
+        }
     }
 
-    public int getPlay(int pos, int trickSeq) {
+    public int getPlay(int pos, int trickSeq, List<Integer> playableCards) {
         System.out.println("getPlay()");
-        return processPlay(pos, trickSeq, -1);
+        // single playable card (always the case for the last trick; in earlier tricks, only
+        // if the coordinator filters `playableCards` to legal plays)
+        int forced = EpDeal.forcedCard(playableCards);
+        assert forced >= 0 || trickNum < 4 || playableCards.isEmpty()
+            : "bad playable cards for last trick: " + playableCards;
+        if (forced >= 0) {
+            // engine is passed the card, same as a play notification (no search)
+            parent.forcedPlay(trickNum);
+            return processPlay(pos, trickSeq, parent.toPlayCard(forced), null);
+        }
+        return processPlay(pos, trickSeq, -1, playableCards);
     }
 
     public int notifyPlay(int pos, int trickSeq, int card) {
         System.out.println(String.format("notifyPlay(%d)", card));
-        int suit = card % 4;
-        int rank = card / 4;
-        if (rank == 2) {
-            if (suit == parent.fintp) {
-                rank = 7;
-            } else if (suit == 3 - parent.fintp) {
-                rank = 6;
-                suit = parent.fintp;
-            }
-        }
-        return processPlay(pos, trickSeq, suit + rank * 10);
+        return processPlay(pos, trickSeq, parent.toPlayCard(card), null);
     }
 
-    public int processPlay(int pos, int trickSeq, int playCard) {
+    public int processPlay(int pos, int trickSeq, int playCard, List<Integer> playableCards) {
         int tr      = trickNum;
         int pl      = ++curSeq;
         if (pl != trickSeq) {
@@ -323,7 +677,7 @@ class EpTrick
             pl = curSeq = trickSeq;
         }
         int playnum = tr*4+pl;
-        int curpos  = parent.deal.pos[tr+1][pl];
+        int curpos  = parent.pos[tr+1][pl];
         int partpos = (curpos+2)%4;
 
         if (parent.lone == partpos) { // partner NOT going alone
@@ -331,8 +685,13 @@ class EpTrick
             return -1;
         }
 
-        playCard = parent.deal.player(playnum, parent.dealState, playCard);
-        parent.deal.validateHands();
+        boolean decided = playCard < 0;
+        if (decided) {
+            playCard = parent.decide("play", () -> enginePlay(playnum, -1),
+                                     () -> parent.toPlayCard(parent.lowestCard(playableCards)));
+        } else if (!parent.detached) {
+            playCard = enginePlay(playnum, playCard);
+        }
         int cursuit = playCard%10;
         int currank = playCard/10;
         int curval  = -1;
@@ -356,17 +715,25 @@ class EpTrick
             parent.lead[tr+1] = leadsuit = cursuit;
         }
 
-        if (currank == 7) {
-            currank = 2;
-        } else if (currank == 6) {
-            currank = 2;
-            cursuit = 3 - cursuit;
+        if (parent.shadow != null) {
+            parent.shadow.play(tr, playnum, playCard, decided && !parent.detached, winpos,
+                               leadsuit);
         }
-        return cursuit + currank * 4;
+        return cards[pl] = Protocol.PLAY_TO_CARD[playCard];
+    }
+
+    int enginePlay(int playnum, int playCard) {
+        return parent.deal.play(playnum, playCard);
     }
 
     public void complete() {
-        parent.deal.updatePlay(trickNum);
+        if (!parent.detached) {
+            parent.deal.endTrick(trickNum);
+        }
+        if (parent.shadow != null) {
+            parent.shadow.endTrick(trickNum);
+        }
+        parent.parent.history.addTrick(this);
     }
 }
 
@@ -381,15 +748,16 @@ record EpStatus(String status, String info)
 }
 
 // Session - POST request
-record SessionInfo(String token, String status)
+record SessionInfo(String token, String status, Integer moveDeadline, String protocol)
 {
 }
 
 // Session - POST response
-record SessionProto(String token, String status, int[] cards, int[] suits)
+record SessionProto(String token, String status, String protocol, int[] cards, int[] suits)
 {
     public SessionProto(EpSession sess) {
-        this(sess.token, sess.status, sess.protocol.getCards(), sess.protocol.getSuits());
+        this(sess.token, sess.status, sess.protocol.name, sess.protocol.getCards(),
+             sess.protocol.getSuits());
     }
 }
 
@@ -503,6 +871,57 @@ public class EndpointController
 {
     HashMap<String, EpSession> sessionMap = new HashMap<String, EpSession>();
 
+    EpMetrics metrics;
+    StrategyRegistry strategies;
+    // second strategy evaluated against live traffic, if configured
+    ShadowEvaluator  shadow;
+    int       moveDeadline;  // default for sessions (ms), 0 for none
+    int       orphanWait;    // max wait (ms) for an orphaned engine call at deal start
+    boolean   asyncNotify;   // queue POST notifications for bid, swap, and play
+    // completed deals are recorded only if store directory is configured
+    DealStore dealStore;
+
+    public EndpointController(MeterRegistry registry,
+                              @Value("${endpoint.move.deadline:0}") int moveDeadline,
+                              @Value("${endpoint.move.orphanwait:1000}") int orphanWait,
+                              @Value("${endpoint.notify.async:false}") boolean asyncNotify,
+                              @Value("${endpoint.dealstore.dir:}") String dealStoreDir,
+                              @Value("${endpoint.dealstore.batch:10000}") int dealStoreBatch,
+                              @Value("${endpoint.equity.table:}") String equityFile,
+                              @Value("${endpoint.equity.mode:off}") String equityMode,
+                              @Value("${endpoint.equity.threshold:0}") int equityThreshold,
+                              @Value("${endpoint.strategy.dir:}") String strategyDir,
+                              @Value("${endpoint.strategy.ratio:default}") String strategyRatio,
+                              @Value("${endpoint.shadow.strategy:}") String shadowStrategy,
+                              @Value("${endpoint.shadow.threads:2}") int shadowThreads,
+                              @Value("${endpoint.shadow.queue:10000}") int shadowQueue) {
+        this.metrics      = new EpMetrics(registry);
+        this.strategies   = new StrategyRegistry(strategyDir, strategyRatio);
+        if (!shadowStrategy.isEmpty()) {
+            this.shadow = new ShadowEvaluator(shadowStrategy, shadowThreads, shadowQueue, metrics);
+        }
+        this.moveDeadline = moveDeadline;
+        this.orphanWait   = orphanWait;
+        this.asyncNotify  = asyncNotify;
+        if (!dealStoreDir.isEmpty()) {
+            this.dealStore = new DealStore(Path.of(dealStoreDir), dealStoreBatch);
+        }
+        EquityTable.Mode mode = EquityTable.Mode.valueOf(equityMode.toUpperCase());
+        if (!equityFile.isEmpty() && mode != EquityTable.Mode.OFF) {
+            EquityTable.shared = EquityTable.load(Path.of(equityFile), mode, equityThreshold);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dealStore != null) {
+            dealStore.flush();
+        }
+        if (shadow != null) {
+            shadow.shutdown();
+        }
+    }
+
     // ---------- Session ---------- //
 
     @PostMapping("/session")
@@ -512,7 +931,13 @@ public class EndpointController
         assert !sessionMap.containsKey(req.token()) : "token exists: " + req.token();
 
         // create/add new session
-        EpSession sess = new EpSession(req, Status.ACTIVE);
+        EpSession sess = new EpSession(req, Status.ACTIVE, strategies.assign(), metrics,
+                                       moveDeadline, orphanWait, asyncNotify);
+        StrategyRegistry.Entry shadowEntry = shadow != null ? strategies.get(shadow.name) : null;
+        if (shadowEntry != null) {
+            sess.shadow         = shadow;
+            sess.shadowStrategy = shadowEntry.strategy();
+        }
         sessionMap.put(req.token(), sess);
         return new SessionProto(sess);
     }
@@ -525,6 +950,7 @@ public class EndpointController
 
         // remove and update status, if complete
         EpSession sess = sessionMap.remove(req.token());
+        sess.complete();
         sess.status = req.status();
         return new SessionStatus(sess);
     }
@@ -542,8 +968,11 @@ public class EndpointController
         assert req.status().equals(Status.NEW) : "bad req status: " + req.status();
         assert req.gameNum() == sess.gameList.size() : "bad gameNum value: " + req.gameNum();
 
-        // create/add new game
-        EpGame game = new EpGame(req, Status.ACTIVE);
+        // create/add new game (engine is only accessed on one thread at a time, so wait for
+        // queued notifications from the previous game; engine game is created with the first
+        // deal, see `postDeal`)
+        sess.reset();
+        EpGame game = new EpGame(sess, sess.strategy, req, Status.ACTIVE);
         sess.gameList.add(game);
         return new GameStatus(game);
     }
@@ -570,8 +999,11 @@ public class EndpointController
         // clean up and update status, if complete
         if (req.status().equals(Status.COMPLETE)) {
             game.status = req.status();
-            // delete reference to underlying Game!!!
-            // leave on gameList (will be cleaned up with `sess`)
+            game.activeDeal = null;  // deals remain in `game.history`
+            // release engine games (queued notifications for the last deal hold their own
+            // references); leave on gameList (will be cleaned up with `sess`)
+            game.game       = null;
+            game.shadowGame = null;
         }
         return new GameStatus(game);
     }
@@ -592,11 +1024,18 @@ public class EndpointController
 
         // check request parameters
         assert req.status().equals(Status.NEW) : "bad req status: " + req.status();
-        assert req.dealNum() == game.dealList.size() : "bad dealNum value: " + req.dealNum();
-
-        // create/add new deal
-        EpDeal deal = new EpDeal(game, req, Status.ACTIVE);
-        game.dealList.add(deal);
+        assert req.dealNum() == game.dealCount : "bad dealNum value: " + req.dealNum();
+
+        // create/add new deal (cards translated per session protocol); wait for queued
+        // notifications from the previous deal first, as for `postGame`, and for any orphaned
+        // engine call (up to `orphanWait`, otherwise the deal is played without the engine)
+        sess.reset();
+        sess.awaitEngine();
+        DealInfo info = new DealInfo(req.token(), req.gameNum(), req.dealNum(), req.status(),
+                                     sess.protocol.cards(req.cards()));
+        EpDeal deal = new EpDeal(game, info, Status.ACTIVE);
+        game.activeDeal = deal;
+        game.dealCount++;
         return new DealStatus(deal);
     }
 
@@ -620,16 +1059,21 @@ public class EndpointController
         default:
             assert false : "bad req status: " + req.status();
         }
-        assert req.dealNum() == game.dealList.size() - 1 : "bad dealNum value: " + req.dealNum();
-        EpDeal deal = game.dealList.get(req.dealNum());
+        assert req.dealNum() == game.dealCount - 1 : "bad dealNum value: " + req.dealNum();
+        EpDeal deal = game.activeDeal;
         // update stats/info here (leave status alone)!!!
 
         // clean up and update status, if complete
         if (req.status().equals(Status.COMPLETE)) {
-            deal.complete();
+            sess.queue(() -> {
+                deal.complete();
+                if (dealStore != null) {
+                    dealStore.append(game.history, deal.dealNum);
+                }
+            });
             deal.status = req.status();
-            // delete reference to underlying Deal!!!
-            // leave on dealList (will be cleaned up with `game`)
+            // underlying Deal is released by `complete()`, deal record is kept in
+            // `game.history` (EpDeal is dropped when the next deal starts)
         }
         return new DealStatus(deal);
     }
@@ -654,12 +1098,13 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert dealNum == game.dealList.size() - 1 : "bad dealNum value: " + dealNum;
-        EpDeal deal = game.dealList.get(dealNum);
+        assert dealNum == game.dealCount - 1 : "bad dealNum value: " + dealNum;
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
+        sess.drain();
         int[]   bidx  = deal.getBid();
-        int     suit  = bidx[2];
+        int     suit  = sess.protocol.coordSuit(bidx[2]);
         boolean alone = bidx[3] == 2;
         return new BidInfo(token, gameNum, dealNum, round, turnCard, pos, suit, alone);
     }
@@ -677,12 +1122,17 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert req.dealNum() == game.dealList.size() - 1 : "bad dealNum value: " + req.dealNum();
-        EpDeal deal = game.dealList.get(req.dealNum());
+        assert req.dealNum() == game.dealCount - 1 : "bad dealNum value: " + req.dealNum();
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
-        int[]   bidx      = deal.notifyBid(req.suit(), req.alone());
-        int     suggSuit  = bidx[2];
+        if (sess.async) {
+            // ack without waiting for engine (suggestion not computed)
+            sess.queue(() -> deal.notifyBid(sess.protocol.suit(req.suit()), req.alone()));
+            return new BidInfo(req, req.suit(), req.alone());
+        }
+        int[]   bidx      = deal.notifyBid(sess.protocol.suit(req.suit()), req.alone());
+        int     suggSuit  = sess.protocol.coordSuit(bidx[2]);
         boolean suggAlone = bidx[3] == 2;
         return new BidInfo(req, suggSuit, suggAlone);
     }
@@ -708,12 +1158,14 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert dealNum == game.dealList.size() - 1 : "bad dealNum value: " + dealNum;
-        EpDeal deal = game.dealList.get(dealNum);
+        assert dealNum == game.dealCount - 1 : "bad dealNum value: " + dealNum;
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
-        int swapCard = deal.getSwap();
-        return new SwapInfo(token, gameNum, dealNum, declarerPos, turnCard, pos, swapCard);
+        sess.drain();
+        int swapCard = deal.getSwap(sess.protocol.cards(swappableCards));
+        return new SwapInfo(token, gameNum, dealNum, declarerPos, turnCard, pos,
+                            sess.protocol.coordCard(swapCard));
     }
 
     @PostMapping("/swap")
@@ -729,12 +1181,17 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert req.dealNum() == game.dealList.size() - 1 : "bad dealNum value: " + req.dealNum();
-        EpDeal deal = game.dealList.get(req.dealNum());
+        assert req.dealNum() == game.dealCount - 1 : "bad dealNum value: " + req.dealNum();
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
-        int suggCard = deal.notifySwap(req.card());
-        return new SwapInfo(req, suggCard);
+        if (sess.async) {
+            // ack without waiting for engine (suggestion not computed)
+            sess.queue(() -> deal.notifySwap(sess.protocol.card(req.card())));
+            return new SwapInfo(req, req.card());
+        }
+        int suggCard = deal.notifySwap(sess.protocol.card(req.card()));
+        return new SwapInfo(req, sess.protocol.coordCard(suggCard));
     }
 
     // ---------- Defense ---------- //
@@ -771,20 +1228,24 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert req.dealNum() == game.dealList.size() - 1 : "bad dealNum value: " + req.dealNum();
-        EpDeal deal = game.dealList.get(req.dealNum());
+        assert req.dealNum() == game.dealCount - 1 : "bad dealNum value: " + req.dealNum();
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
         // check request parameters
         assert req.status().equals(Status.NEW) : "bad req status: " + req.status();
-        assert req.trickNum() == deal.trickList.size() : "bad trickNum value: " + req.trickNum();
+        assert req.trickNum() == deal.trickCount : "bad trickNum value: " + req.trickNum();
 
         // create/add new trick
         EpTrick trick = new EpTrick(deal, req, Status.ACTIVE);
-        deal.trickList.add(trick);
-        if (req.trickNum() == 0) {
-            deal.startPlay();
-        }
+        deal.activeTrick = trick;
+        deal.trickCount++;
+        sess.queue(() -> {
+            trick.start();
+            if (req.trickNum() == 0) {
+                deal.startPlay();
+            }
+        });
         return new TrickStatus(trick);
     }
 
@@ -801,8 +1262,8 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert req.dealNum() == game.dealList.size() - 1 : "bad dealNum value: " + req.dealNum();
-        EpDeal deal = game.dealList.get(req.dealNum());
+        assert req.dealNum() == game.dealCount - 1 : "bad dealNum value: " + req.dealNum();
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
         // check request parameters
@@ -813,16 +1274,16 @@ public class EndpointController
         default:
             assert false : "bad req status: " + req.status();
         }
-        assert req.trickNum() == deal.trickList.size() - 1 : "bad trickNum value: " + req.trickNum();
-        EpTrick trick = deal.trickList.get(req.trickNum());
+        assert req.trickNum() == deal.trickCount - 1 : "bad trickNum value: " + req.trickNum();
+        EpTrick trick = deal.activeTrick;
         // update stats/info here (leave status alone)!!!
 
         // clean up and update status, if complete
         if (req.status().equals(Status.COMPLETE)) {
-            trick.complete();
+            sess.queue(trick::complete);
             trick.status = req.status();
-            // delete reference to underlying Trick!!!
-            // leave on trickList (will be cleaned up with `deal`)
+            // trick record is kept in `game.history` (EpTrick is dropped when the next
+            // trick starts)
         }
         return new TrickStatus(trick);
     }
@@ -848,17 +1309,19 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert dealNum == game.dealList.size() - 1 : "bad dealNum value: " + dealNum;
-        EpDeal deal = game.dealList.get(dealNum);
+        assert dealNum == game.dealCount - 1 : "bad dealNum value: " + dealNum;
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
         // get trick, check status
-        assert trickNum == deal.trickList.size() - 1 : "bad trickNum value: " + trickNum;
-        EpTrick trick = deal.trickList.get(trickNum);
+        assert trickNum == deal.trickCount - 1 : "bad trickNum value: " + trickNum;
+        EpTrick trick = deal.activeTrick;
         assert trick.status.equals(Status.ACTIVE) : "bad trick status: " + trick.status;
 
-        int playCard = trick.getPlay(pos, trickSeq);
-        return new PlayInfo(token, gameNum, dealNum, trickNum, trickSeq, pos, playCard);
+        sess.drain();
+        int playCard = trick.getPlay(pos, trickSeq, sess.protocol.cards(playableCards));
+        return new PlayInfo(token, gameNum, dealNum, trickNum, trickSeq, pos,
+                            sess.protocol.coordCard(playCard));
     }
 
     @PostMapping("/play")
@@ -874,16 +1337,22 @@ public class EndpointController
         assert game.status.equals(Status.ACTIVE) : "bad game status: " + game.status;
 
         // get deal, check status
-        assert req.dealNum() == game.dealList.size() - 1 : "bad dealNum value: " + req.dealNum();
-        EpDeal deal = game.dealList.get(req.dealNum());
+        assert req.dealNum() == game.dealCount - 1 : "bad dealNum value: " + req.dealNum();
+        EpDeal deal = game.activeDeal;
         assert deal.status.equals(Status.ACTIVE) : "bad deal status: " + deal.status;
 
         // get trick, check status
-        assert req.trickNum() == deal.trickList.size() - 1 : "bad trickNum value: " + req.trickNum();
-        EpTrick trick = deal.trickList.get(req.trickNum());
+        assert req.trickNum() == deal.trickCount - 1 : "bad trickNum value: " + req.trickNum();
+        EpTrick trick = deal.activeTrick;
         assert trick.status.equals(Status.ACTIVE) : "bad trick status: " + trick.status;
 
-        int suggCard = trick.notifyPlay(req.pos(), req.trickSeq(), req.card());
-        return new PlayInfo(req, suggCard);
+        if (sess.async) {
+            // ack without waiting for engine (suggestion not computed)
+            sess.queue(() -> trick.notifyPlay(req.pos(), req.trickSeq(),
+                                              sess.protocol.card(req.card())));
+            return new PlayInfo(req, req.card());
+        }
+        int suggCard = trick.notifyPlay(req.pos(), req.trickSeq(), sess.protocol.card(req.card()));
+        return new PlayInfo(req, sess.protocol.coordCard(suggCard));
     }
 }
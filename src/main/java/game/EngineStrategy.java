@@ -0,0 +1,51 @@
+package game;
+
+/**
+ *  Engine strategy SPI - interface between the endpoint and a bidding/playing engine
+ *
+ *  Implementations may be loaded in isolated classloaders (see `StrategyLoader`), so the
+ *  interfaces only use primitives and arrays.  Card, position, and bid representations are
+ *  the same as for the EuchreBeta `Deal` class (see `EpDeal`).
+ */
+public interface EngineStrategy
+{
+    /**
+     *  Start a new game; the game (and its deals) should keep a reference to the strategy,
+     *  since a strategy loaded from a jar is unloaded once it is unreachable
+     */
+    EngineGame newGame(int[] points, int gamePts);
+
+    interface EngineGame
+    {
+        /**
+         *  Start a new deal (bidding phase); `win`, `lead`, and `trick` are shared with the
+         *  caller and updated as tricks are played
+         */
+        EngineDeal newDeal(int[] cards, int dealerPos, int[] win, int[] lead, int[] trick);
+    }
+
+    interface EngineDeal
+    {
+        // engine bid for position (returns lone, declarer, suit, call)
+        int[] bid(int pos);
+
+        // notify engine of bid (`docall` = call + suit * 10)
+        int[] bid(int pos, int docall);
+
+        // engine swap for dealer
+        int swap(int declarer, int lone);
+
+        // notify engine of swap (dealer card position)
+        int swap(int declarer, int lone, int cardpos);
+
+        void startPlay(int declarer, int trump, int lone, int round);
+
+        // set play order (positions) for trick
+        void startTrick(int trickNum, int[] order);
+
+        // engine play (if `playCard` is -1), or notify engine of play; returns play card
+        int play(int playnum, int playCard);
+
+        void endTrick(int trickNum);
+    }
+}
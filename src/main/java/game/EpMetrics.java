@@ -0,0 +1,83 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ *  Endpoint metrics (published through the actuator `/metrics` endpoint)
+ */
+class EpMetrics
+{
+    MeterRegistry registry;
+    AtomicInteger orphans;  // orphaned engine calls still running
+
+    public EpMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.orphans  = registry.gauge("endpoint.engine.orphans", new AtomicInteger());
+    }
+
+    // engine overran the session move deadline, fallback move returned
+    public void deadlineHit(String move) {
+        registry.counter("endpoint.deadline.hits", "move", move).increment();
+    }
+
+    // engine call left running after deadline hit (engine thread is busy until it ends;
+    // `endpoint.engine.orphans` is the number currently running)
+    public void orphanStart(String move) {
+        registry.counter("endpoint.engine.orphaned", "move", move).increment();
+        orphans.incrementAndGet();
+    }
+
+    public void orphanEnd() {
+        orphans.decrementAndGet();
+    }
+
+    // play decided without calling engine (only one legal card), by trick number (trick 4
+    // is always forced); compare against count and mean of `endpoint.engine.time` for hit
+    // rate and engine time saved
+    public void forcedPlay(int trickNum) {
+        registry.counter("endpoint.forced.moves", "move", "play",
+                         "trick", String.valueOf(trickNum)).increment();
+    }
+
+    // time engine decision (tagged by strategy, for comparing strategies side-by-side)
+    public <T> T engineCall(String move, String strategy, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            registry.timer("endpoint.engine.time", "move", move, "strategy", strategy)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // shadow decision compared against primary, by move and trick ("none" for bid and swap);
+    // the `agree=true` share is the agreement rate for moves compared, which only includes
+    // moves before the first disagreement in a deal (see `shadowDeal`)
+    public void shadowMove(String move, int trickNum, boolean agree) {
+        registry.counter("endpoint.shadow.moves", "move", move,
+                         "trick", trickNum < 0 ? "none" : String.valueOf(trickNum),
+                         "agree", String.valueOf(agree)).increment();
+    }
+
+    // shadow deal outcome: "agreed" (every compared move), "diverged" (dropped at first
+    // disagreement), "shed" (shadow queue full), or "failed" (shadow engine error); the
+    // `agreed` share of agreed + diverged is the rate of deals played identically
+    public void shadowDeal(String outcome) {
+        registry.counter("endpoint.shadow.deals", "outcome", outcome).increment();
+    }
+
+    // shadow engine decision time (with percentiles, for comparing against
+    // `endpoint.engine.time`)
+    public void shadowTime(String move, long nanos) {
+        Timer.builder("endpoint.shadow.time")
+            .tag("move", move)
+            .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,210 @@
+package game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *  Offline generator for `EquityTable`
+ *
+ *  Usage: EquityGenerator <workDir> <tableFile> [samples] [threads]
+ *
+ *  For each canonical opening hand and turn card (turn suit mapped to 0, see `EquityTable`),
+ *  and each bidding position, the remaining cards are dealt randomly `samples` times and
+ *  each deal is played out by the engine (through the same `EpDeal`/`EpTrick` calls used by
+ *  the endpoint), with the bidding position ordering up the turn card.
+ *
+ *  Work is split into chunks of `CHUNK_HANDS` hand indexes, run in parallel; each completed
+ *  chunk is written to `<workDir>/chunk-NNNN.bin`, so an interrupted run can be restarted
+ *  (existing chunks are skipped).  The table file is assembled once all chunks are present.
+ *
+ *  NOTE: assumes separate engine `Deal` instances do not share mutable state (other than
+ *  `Game.cardname`, which is always written with the same values for a given trump suit).
+ */
+public class EquityGenerator
+{
+    static final int    CHUNK_HANDS = 500;
+    static final int    NUM_CHUNKS  = (EquityTable.HANDS + CHUNK_HANDS - 1) / CHUNK_HANDS;
+    static final String TOKEN       = "equity";
+    static final EngineStrategy STRATEGY = new BetaStrategy();
+
+    Path workDir;
+    int  samples;
+
+    public EquityGenerator(Path workDir, int samples) {
+        this.workDir = workDir;
+        this.samples = samples;
+    }
+
+    Path chunkFile(int chunk) {
+        return workDir.resolve(String.format("chunk-%04d.bin", chunk));
+    }
+
+    /**
+     *  Play out one random deal with `pos` ordering up `turn`, returns points for the
+     *  bidder's team (+1 or +2 if made, -2 if euchred)
+     */
+    int simulate(int[] hand, int turn, int pos, SplittableRandom rnd) {
+        int[] cards = new int[24];
+        int[] rest  = new int[18];
+        int   n     = 0;
+        for (int card = 0; card < 24; card++) {
+            if (card != turn && Arrays.binarySearch(hand, card) < 0) {
+                rest[n++] = card;
+            }
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = rest[i]; rest[i] = rest[j]; rest[j] = t;
+        }
+        n = 0;
+        for (int i = 0; i < 24; i++) {
+            if (i >= pos * 5 && i < pos * 5 + 5) {
+                cards[i] = hand[i - pos * 5];
+            } else if (i == 20) {
+                cards[i] = turn;
+            } else {
+                cards[i] = rest[n++];
+            }
+        }
+
+        EpGame game = new EpGame(null, STRATEGY, new GameInfo(TOKEN, 0, Status.NEW),
+                                 Status.ACTIVE);
+        EpDeal deal = new EpDeal(game, new DealInfo(TOKEN, 0, 0, Status.NEW, cards), Status.ACTIVE);
+        for (int p = 0; p < pos; p++) {
+            deal.notifyBid(-1, false);
+        }
+        deal.notifyBid(turn % 4, false);
+        assert deal.declarer == pos : "bad declarer: " + deal.declarer;
+        deal.getSwap(List.of());
+
+        for (int tr = 0; tr < 5; tr++) {
+            EpTrick trick = new EpTrick(deal, new TrickInfo(TOKEN, 0, 0, tr, Status.NEW),
+                                        Status.ACTIVE);
+            trick.start();
+            if (tr == 0) {
+                deal.startPlay();
+            }
+            for (int seq = 0; seq < 4; seq++) {
+                trick.getPlay(deal.pos[tr + 1][seq], seq, List.of());
+            }
+            trick.complete();
+        }
+
+        int tricks = 0;
+        for (int tr = 1; tr <= 5; tr++) {
+            if (deal.win[tr] % 2 == pos % 2) {
+                tricks++;
+            }
+        }
+        return tricks == 5 ? 2 : (tricks >= 3 ? 1 : -2);
+    }
+
+    /**
+     *  Compute entries for one chunk of hand indexes, and write chunk file
+     */
+    void runChunk(int chunk) throws IOException {
+        int     first   = chunk * CHUNK_HANDS;
+        int     last    = Math.min(first + CHUNK_HANDS, EquityTable.HANDS);
+        short[] entries = new short[(last - first) * 24];
+        Arrays.fill(entries, EquityTable.MISSING);
+        SplittableRandom rnd = new SplittableRandom(chunk);
+
+        int[] hand = new int[5];
+        for (int idx = first; idx < last; idx++) {
+            EquityTable.handFromIndex(idx, hand);
+            // only canonical hands (other-color suits ordered), see `EquityTable`
+            if (EquityTable.canonHandIndex(hand, 0, true) < idx) {
+                continue;
+            }
+            for (int rank = 0; rank < 6; rank++) {
+                int turn = rank * 4;
+                if (Arrays.binarySearch(hand, turn) >= 0) {
+                    continue;
+                }
+                for (int pos = 0; pos < 4; pos++) {
+                    long points = 0;
+                    for (int i = 0; i < samples; i++) {
+                        points += simulate(hand, turn, pos, rnd);
+                    }
+                    entries[((idx - first) * 6 + rank) * 4 + pos] =
+                        (short)Math.round(points * 1000.0 / samples);
+                }
+            }
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(entries.length * 2);
+        buf.asShortBuffer().put(entries);
+        Path file = chunkFile(chunk);
+        Path temp = workDir.resolve(file.getFileName() + ".tmp");
+        Files.write(temp, buf.array());
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void assemble(Path tableFile) throws IOException {
+        short[] entries = new short[EquityTable.ENTRIES];
+        for (int chunk = 0; chunk < NUM_CHUNKS; chunk++) {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(chunkFile(chunk)));
+            buf.asShortBuffer().get(entries, chunk * CHUNK_HANDS * 24, buf.capacity() / 2);
+        }
+        EquityTable.save(tableFile, entries, samples);
+    }
+
+    public static void main(String[] args) throws Exception {
+        assert args.length >= 2 : "usage: EquityGenerator <workDir> <tableFile> [samples] [threads]";
+        Path workDir   = Path.of(args[0]);
+        Path tableFile = Path.of(args[1]);
+        int  samples   = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int  threads   = args.length > 3 ? Integer.parseInt(args[3]) :
+            Runtime.getRuntime().availableProcessors();
+        Files.createDirectories(workDir);
+
+        EquityGenerator gen = new EquityGenerator(workDir, samples);
+        List<Integer> todo = new ArrayList<Integer>();
+        for (int chunk = 0; chunk < NUM_CHUNKS; chunk++) {
+            if (!Files.exists(gen.chunkFile(chunk))) {
+                todo.add(chunk);
+            }
+        }
+        PrintStream out = System.out;
+        out.println(String.format("EquityGenerator: %d of %d chunks to do (%d samples, %d threads)",
+                                  todo.size(), NUM_CHUNKS, samples, threads));
+        // engine and endpoint classes are chatty
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger   done = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int chunk : todo) {
+            futures.add(pool.submit(() -> {
+                try {
+                    gen.runChunk(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                out.println(String.format("EquityGenerator: chunk %d complete (%d of %d)",
+                                          chunk, done.incrementAndGet(), todo.size()));
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        gen.assemble(tableFile);
+        out.println(String.format("EquityGenerator: table written to %s", tableFile));
+    }
+}
@@ -0,0 +1,191 @@
+package game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  Precomputed first-round bidding equity, by opening hand, turn card, and bidding position
+ *  (see `EquityGenerator` for how the table is built)
+ *
+ *  Cards are in engine representation (suit = card % 4, rank = card / 4, with suit pairs
+ *  of the same color adding up to 3).  Lookups are canonicalized for suit symmetry:
+ *  - turn card suit is mapped to suit 0 (and its same-color suit to 3)
+ *  - the two other-color suits (1 and 2) are ordered so as to minimize the hand index
+ *
+ *  Table entries (short) - expected points for the bidder's team when ordering up the turn
+ *  card (and not going alone), in thousandths of a point; `MISSING` if not computed.
+ *
+ *  File layout (big-endian):
+ *  - 0-3  : magic ("EPEQ")
+ *  - 4-7  : format version
+ *  - 8-11 : number of samples per entry
+ *  - 12-15: number of entries (HANDS * 6 * 4)
+ *  - 16-  : entries, indexed by `(handIndex * 6 + turnRank) * 4 + pos`
+ */
+class EquityTable
+{
+    static final int   MAGIC   = 0x45504551;  // "EPEQ"
+    static final int   VERSION = 1;
+    static final int   HANDS   = 42504;       // C(24, 5)
+    static final int   ENTRIES = HANDS * 6 * 4;
+    static final short MISSING = Short.MIN_VALUE;
+
+    enum Mode
+    {
+        OFF,    // table not consulted
+        FAST,   // table decides first round bids (engine is notified of the bid)
+        CHECK   // engine decides, table decision is cross-checked
+    }
+
+    // shared instance (set at startup, if configured)
+    static EquityTable shared;
+
+    // binomial coefficients - C(n, k) for n < 24, k <= 5 (zero for k > n)
+    static final int[][] BINOM = new int[24][6];
+    static {
+        for (int n = 0; n < 24; n++) {
+            BINOM[n][0] = 1;
+            for (int k = 1; k <= 5 && k <= n; k++) {
+                BINOM[n][k] = BINOM[n - 1][k - 1] + BINOM[n - 1][k];
+            }
+        }
+    }
+
+    short[]    entries;
+    int        samples;
+    Mode       mode;
+    int        threshold;  // minimum equity (thousandths of a point) for ordering up
+
+    AtomicLong checked  = new AtomicLong();
+    AtomicLong disagree = new AtomicLong();
+
+    public EquityTable(short[] entries, int samples, Mode mode, int threshold) {
+        assert entries.length == ENTRIES : "bad table size: " + entries.length;
+        this.entries   = entries;
+        this.samples   = samples;
+        this.mode      = mode;
+        this.threshold = threshold;
+    }
+
+    public static EquityTable load(Path file, Mode mode, int threshold) {
+        long start = System.nanoTime();
+        ByteBuffer buf;
+        try {
+            buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // header is checked explicitly (not by assert), since reading it advances `buf`
+        if (buf.remaining() != 16 + ENTRIES * 2) {
+            throw new IllegalStateException("bad file size: " + file);
+        }
+        int magic   = buf.getInt();
+        int version = buf.getInt();
+        int samples = buf.getInt();
+        int count   = buf.getInt();
+        if (magic != MAGIC) {
+            throw new IllegalStateException("bad magic number: " + file);
+        }
+        if (version != VERSION) {
+            throw new IllegalStateException("bad format version: " + file);
+        }
+        if (count != ENTRIES) {
+            throw new IllegalStateException("bad number of entries: " + count);
+        }
+        short[] entries = new short[ENTRIES];
+        buf.asShortBuffer().get(entries);
+        System.out.println(String.format("EquityTable.load(%s): %d samples, %.1f ms", file,
+                                         samples, (System.nanoTime() - start) / 1e6));
+        return new EquityTable(entries, samples, mode, threshold);
+    }
+
+    public static void save(Path file, short[] entries, int samples) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(16 + ENTRIES * 2);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(samples).putInt(ENTRIES);
+        buf.asShortBuffer().put(entries);
+        Files.write(file, buf.array());
+    }
+
+    // ---------- Indexing ---------- //
+
+    // colex rank of a sorted 5-card hand (0 to HANDS-1)
+    static int handIndex(int[] sorted) {
+        int idx = 0;
+        for (int k = 0; k < 5; k++) {
+            idx += BINOM[sorted[k]][k + 1];
+        }
+        return idx;
+    }
+
+    // inverse of `handIndex` (fills `hand` in ascending order)
+    static void handFromIndex(int idx, int[] hand) {
+        int n = 23;
+        for (int k = 5; k > 0; k--) {
+            while (BINOM[n][k] > idx) {
+                n--;
+            }
+            hand[k - 1] = n;
+            idx -= BINOM[n][k];
+            n--;
+        }
+    }
+
+    // map card to canonical suits (turn suit -> 0, same color -> 3, others -> 1/2 or 2/1)
+    static int canonCard(int card, int turnSuit, boolean flip) {
+        int suit = card % 4;
+        int canon;
+        if (suit == turnSuit) {
+            canon = 0;
+        } else if (suit == 3 - turnSuit) {
+            canon = 3;
+        } else {
+            canon = (suit < 3 - suit) != flip ? 1 : 2;
+        }
+        return card / 4 * 4 + canon;
+    }
+
+    static int canonHandIndex(int[] hand, int turnSuit, boolean flip) {
+        int[] canon = new int[5];
+        for (int i = 0; i < 5; i++) {
+            canon[i] = canonCard(hand[i], turnSuit, flip);
+        }
+        Arrays.sort(canon);
+        return handIndex(canon);
+    }
+
+    // canonical entry index for hand (any order), turn card, and bidding position
+    static int entryIndex(int[] hand, int turnCard, int pos) {
+        int turnSuit = turnCard % 4;
+        int idx      = Math.min(canonHandIndex(hand, turnSuit, false),
+                                canonHandIndex(hand, turnSuit, true));
+        return (idx * 6 + turnCard / 4) * 4 + pos;
+    }
+
+    // ---------- Lookup ---------- //
+
+    public int equity(int[] hand, int turnCard, int pos) {
+        return entries[entryIndex(hand, turnCard, pos)];
+    }
+
+    /**
+     *  Whether to order up the turn card; returns null if there is no table entry
+     */
+    public Boolean orderUp(int[] hand, int turnCard, int pos) {
+        int eq = equity(hand, turnCard, pos);
+        return eq == MISSING ? null : eq >= threshold;
+    }
+
+    public void crossCheck(boolean tableCall, boolean engineCall) {
+        long n = checked.incrementAndGet();
+        if (tableCall != engineCall) {
+            long d = disagree.incrementAndGet();
+            System.out.println(String.format("EquityTable: disagree (table %b, engine %b), %d of %d",
+                                             tableCall, engineCall, d, n));
+        }
+    }
+}
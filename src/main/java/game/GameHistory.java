@@ -0,0 +1,98 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ *  Packed history of completed tricks and deals for a game (one fixed-size record per
+ *  deal), replacing the `EpDeal`/`EpTrick` objects once they are complete
+ *
+ *  Deal record layout (bytes, signed, -1 = n/a):
+ *  - 0-23 : deck cards (same layout as Deal POST request)
+ *  - 24   : bid sequence number of declaration (0-7), or -1 if all passed
+ *  - 25   : declarer
+ *  - 26   : trump suit
+ *  - 27   : lone (-1 or declarer)
+ *  - 28   : card exchanged for turn card
+ *  - 29   : number of completed tricks
+ *  - 32-61: tricks, 6 bytes each - lead position, cards (by play sequence), winner
+ */
+class GameHistory
+{
+    static final int DEAL_LEN   = 64;
+    static final int TRICK_LEN  = 6;
+    static final int OFF_BIDS   = 24;
+    static final int OFF_DCLR   = 25;
+    static final int OFF_TRUMP  = 26;
+    static final int OFF_LONE   = 27;
+    static final int OFF_SWAP   = 28;
+    static final int OFF_NTRICK = 29;
+    static final int OFF_TRICKS = 32;
+
+    byte[] data = new byte[DEAL_LEN * 8];
+    int    numDeals;  // completed deals
+
+    public GameHistory() {
+        Arrays.fill(data, (byte)-1);
+    }
+
+    // offset of deal record for `dealNum` (grows array as needed, unused entries are -1)
+    int dealOffset(int dealNum) {
+        int offset = dealNum * DEAL_LEN;
+        if (offset + DEAL_LEN > data.length) {
+            int oldLen = data.length;
+            data = Arrays.copyOf(data, Math.max(data.length * 2, offset + DEAL_LEN));
+            Arrays.fill(data, oldLen, data.length, (byte)-1);
+        }
+        return offset;
+    }
+
+    public void addTrick(EpTrick trick) {
+        int base = dealOffset(trick.dealNum);
+        int off  = base + OFF_TRICKS + trick.trickNum * TRICK_LEN;
+        data[off] = (byte)trick.curLead;
+        for (int seq = 0; seq < 4; seq++) {
+            data[off + 1 + seq] = (byte)trick.cards[seq];
+        }
+        data[off + 5] = (byte)trick.winpos;
+        data[base + OFF_NTRICK] = (byte)(trick.trickNum + 1);
+    }
+
+    public void addDeal(EpDeal deal) {
+        int     base   = dealOffset(deal.dealNum);
+        boolean passed = deal.declarer < 0;
+        for (int i = 0; i < 24; i++) {
+            data[base + i] = (byte)deal.cards[i];
+        }
+        data[base + OFF_BIDS]  = (byte)(passed ? -1 : deal.curBid);
+        data[base + OFF_DCLR]  = (byte)deal.declarer;
+        data[base + OFF_TRUMP] = (byte)(passed ? -1 : deal.fintp);
+        data[base + OFF_LONE]  = (byte)deal.lone;
+        data[base + OFF_SWAP]  = (byte)deal.swapCard;
+        if (data[base + OFF_NTRICK] < 0) {
+            data[base + OFF_NTRICK] = 0;
+        }
+        numDeals = deal.dealNum + 1;
+    }
+
+    // ---------- Accessors ---------- //
+
+    public int card(int d, int i)   { return data[d * DEAL_LEN + i]; }
+    public int bids(int d)          { return data[d * DEAL_LEN + OFF_BIDS]; }
+    public int declarer(int d)      { return data[d * DEAL_LEN + OFF_DCLR]; }
+    public int trump(int d)         { return data[d * DEAL_LEN + OFF_TRUMP]; }
+    public int lone(int d)          { return data[d * DEAL_LEN + OFF_LONE]; }
+    public int swap(int d)          { return data[d * DEAL_LEN + OFF_SWAP]; }
+    public int numTricks(int d)     { return data[d * DEAL_LEN + OFF_NTRICK]; }
+
+    public int trickLead(int d, int tr) {
+        return data[d * DEAL_LEN + OFF_TRICKS + tr * TRICK_LEN];
+    }
+
+    public int trickCard(int d, int tr, int seq) {
+        return data[d * DEAL_LEN + OFF_TRICKS + tr * TRICK_LEN + 1 + seq];
+    }
+
+    public int trickWinner(int d, int tr) {
+        return data[d * DEAL_LEN + OFF_TRICKS + tr * TRICK_LEN + 5];
+    }
+}
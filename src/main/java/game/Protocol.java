@@ -0,0 +1,154 @@
+package game;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ *  Card and suit protocol for a session (negotiated in the Session POST request)
+ *
+ *  - "default" - coordinator translates its cards and suits to the server representation
+ *    (`cards` and `suits` below, returned in the Session POST response)
+ *  - "suit-major" - coordinator uses its own card ids (9C, 10C, JC, ... AC, 9D, ... AS =
+ *    0-23) and suits (clubs, diamonds, hearts, spades = 0-3), translated by the server
+ *  - "rank-major" - same as "suit-major", except card ids are 9C, 9D, 9H, 9S, 10C, ... AS
+ *
+ *  A pass is returned to the coordinator as -1 (per API_NOTES) for the translated
+ *  protocols; "default" returns the engine's pass value (4) as-is, for existing clients.
+ *
+ *  Instances are immutable and shared across sessions; translation tables are built once,
+ *  so translating a card or suit (in either direction) is a single array load.
+ */
+class Protocol
+{
+    static final String DEFAULT = "default";
+
+    // 9C, 9D, 9H, 9S, 10C, ..., KS, AC, AD, AH, AS
+    static final int[] cards = { 3,  2,  1,  0,
+                                 7,  6,  5,  4,
+                                11, 10,  9,  8,
+                                15, 14, 13, 12,
+                                19, 18, 17, 16,
+                                23, 22, 21, 20};
+    // Clubs, Diamonds, Hearts, Spades
+    static final int[] suits = {3, 2, 1, 0};
+
+    static final Map<String, Protocol> protocols =
+        Map.of(DEFAULT,      new Protocol(DEFAULT, false, c -> c, s -> s, 4),
+               "suit-major", new Protocol("suit-major", true, c -> cards[(c % 6) * 4 + c / 6],
+                                          s -> suits[s], -1),
+               "rank-major", new Protocol("rank-major", true, c -> cards[c], s -> suits[s],
+                                          -1));
+
+    /**
+     *  Engine play representation of cards (suit + rank * 10, with bowers ranked above ace
+     *  in the trump suit), by trump suit + 1 (index 0 for trump not yet declared) and card
+     */
+    static final int[][] PLAY_CARDS = new int[5][24];
+    // reverse of `PLAY_CARDS` (by play card, independent of trump)
+    static final int[]   PLAY_TO_CARD = new int[80];
+
+    static {
+        for (int trump = -1; trump < 4; trump++) {
+            for (int card = 0; card < 24; card++) {
+                int suit = card % 4;
+                int rank = card / 4;
+                if (rank == 2) {
+                    if (suit == trump) {
+                        rank = 7;
+                    } else if (suit == 3 - trump) {
+                        rank = 6;
+                        suit = trump;
+                    }
+                }
+                PLAY_CARDS[trump + 1][card] = suit + rank * 10;
+            }
+        }
+        for (int playCard = 0; playCard < 80; playCard++) {
+            int suit = playCard % 10;
+            int rank = playCard / 10;
+            if (rank == 7) {
+                rank = 2;
+            } else if (rank == 6) {
+                rank = 2;
+                suit = 3 - suit;
+            }
+            PLAY_TO_CARD[playCard] = suit < 4 ? suit + rank * 4 : -1;
+        }
+    }
+
+    String  name;
+    boolean translate;  // server translates (coordinator uses its own ids)
+    int[]   toCard   = new int[24];  // by coordinator card
+    int[]   fromCard = new int[24];  // by server card
+    int[]   toSuit   = new int[4];   // by coordinator suit
+    int[]   fromSuit = new int[4];   // by server suit
+    int     pass;                    // coordinator suit for engine pass (4)
+
+    Protocol(String name, boolean translate, IntUnaryOperator cardMap, IntUnaryOperator suitMap,
+             int pass) {
+        this.name      = name;
+        this.translate = translate;
+        this.pass      = pass;
+        for (int c = 0; c < 24; c++) {
+            toCard[c] = cardMap.applyAsInt(c);
+            fromCard[toCard[c]] = c;
+        }
+        for (int s = 0; s < 4; s++) {
+            toSuit[s] = suitMap.applyAsInt(s);
+            fromSuit[toSuit[s]] = s;
+        }
+    }
+
+    public static Protocol get(String name) {
+        Protocol protocol = protocols.get(name == null ? DEFAULT : name);
+        assert protocol != null : "unknown protocol: " + name;
+        return protocol;
+    }
+
+    // representations returned to coordinator (null if translated by server)
+    public int[] getCards() {
+        return translate ? null : cards;
+    }
+
+    public int[] getSuits() {
+        return translate ? null : suits;
+    }
+
+    // ---------- Translation ---------- //
+
+    // coordinator to server card (negative values passed through)
+    public int card(int card) {
+        return card < 0 ? card : toCard[card];
+    }
+
+    public int[] cards(int[] cardArr) {
+        int[] result = new int[cardArr.length];
+        for (int i = 0; i < cardArr.length; i++) {
+            result[i] = card(cardArr[i]);
+        }
+        return result;
+    }
+
+    public List<Integer> cards(List<Integer> cardList) {
+        return cardList.stream().map(this::card).toList();
+    }
+
+    // server to coordinator card
+    public int coordCard(int card) {
+        return card < 0 ? card : fromCard[card];
+    }
+
+    // coordinator to server suit (pass values passed through)
+    public int suit(int suit) {
+        return suit < 0 || suit > 3 ? suit : toSuit[suit];
+    }
+
+    // server to coordinator suit (engine pass value mapped per protocol)
+    public int coordSuit(int suit) {
+        if (suit == 4) {
+            return pass;
+        }
+        return suit < 0 || suit > 3 ? suit : fromSuit[suit];
+    }
+}
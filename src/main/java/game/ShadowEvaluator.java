@@ -0,0 +1,224 @@
+package game;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import game.EngineStrategy.EngineDeal;
+import game.EngineStrategy.EngineGame;
+
+/**
+ *  Shadow evaluation of a second engine strategy against live traffic
+ *
+ *  Each deal is mirrored to a `ShadowDeal` (separate engine instance), which is sent every
+ *  decision and notification after the primary has processed it.  For decisions, the shadow
+ *  engine makes its own move, which is compared against the move returned by the primary.
+ *  Shadow calls run on a shared background executor (events for a deal are run in order),
+ *  so primary responses are never delayed.
+ *
+ *  A shadow deal is abandoned on its first disagreement (the shadow engine has recorded its
+ *  own move, so its state no longer matches the deal), or when the total number of queued
+ *  shadow events reaches `capacity` (load shedding - events cannot be skipped individually
+ *  without the shadow losing track of the deal).
+ *
+ *  Since moves after a disagreement are not compared, the per-move agreement rate is
+ *  conditional on agreement earlier in the deal (and biased upward, more so for later
+ *  tricks); each deal's outcome is also counted (`EpMetrics.shadowDeal`), which gives the
+ *  unbiased share of deals played identically.
+ */
+class ShadowEvaluator
+{
+    String          name;      // shadow strategy name
+    int             capacity;  // max queued events (all deals)
+    EpMetrics       metrics;
+    ExecutorService executor;
+    AtomicInteger   queued = new AtomicInteger();
+
+    public ShadowEvaluator(String name, int threads, int capacity, EpMetrics metrics) {
+        System.out.println(String.format("ShadowEvaluator(%s, %d, %d)", name, threads, capacity));
+        this.name     = name;
+        this.capacity = capacity;
+        this.metrics  = metrics;
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "shadow-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public ShadowDeal newDeal(EngineStrategy strategy, EngineGame game, String label, int[] cards,
+                              int dealerPos) {
+        return new ShadowDeal(strategy, game, label, cards, dealerPos);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    class ShadowDeal
+    {
+        String         label;     // for logging
+        EngineStrategy strategy;  // held while events are queued (unloaded once unreachable)
+        EngineDeal     deal;
+        // copies of the primary's deal state (updated as plays are mirrored)
+        int[]          win;
+        int[]          lead  = {-1, -1, -1, -1, -1, -1};
+        int[]          trick = new int[4];
+
+        ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+        boolean              running;
+        volatile boolean     abandoned;
+
+        ShadowDeal(EngineStrategy strategy, EngineGame game, String label, int[] cards,
+                   int dealerPos) {
+            this.label    = label;
+            this.strategy = strategy;
+            this.win      = new int[] {(dealerPos + 1) % 4, -1, -1, -1, -1, -1};
+            submit(() -> deal = game.newDeal(cards, dealerPos, win, lead, trick));
+        }
+
+        void submit(Runnable task) {
+            if (abandoned) {
+                return;
+            }
+            if (queued.incrementAndGet() > capacity) {
+                queued.decrementAndGet();
+                abandon("shed");
+                return;
+            }
+            synchronized (this) {
+                tasks.add(task);
+                if (running) {
+                    return;
+                }
+                running = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        // run queued tasks in order (at most one thread per deal)
+        void drain() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        running = false;
+                        return;
+                    }
+                }
+                try {
+                    if (!abandoned) {
+                        task.run();
+                    }
+                } catch (RuntimeException | Error e) {
+                    System.out.println(String.format("Shadow failed (%s): %s", label, e));
+                    abandon("failed");
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+        }
+
+        // stop shadowing deal, and count its outcome (first reason only)
+        void abandon(String outcome) {
+            synchronized (this) {
+                if (abandoned) {
+                    return;
+                }
+                abandoned = true;
+                queued.addAndGet(-tasks.size());
+                tasks.clear();
+            }
+            metrics.shadowDeal(outcome);
+        }
+
+        // time shadow decision, and compare against primary (abandon on disagreement);
+        // `trickNum` is -1 for bid and swap
+        void compare(String move, int trickNum, String primary, Supplier<String> decision) {
+            long   start  = System.nanoTime();
+            String shadow = decision.get();
+            metrics.shadowTime(move, System.nanoTime() - start);
+            boolean agree = shadow.equals(primary);
+            metrics.shadowMove(move, trickNum, agree);
+            if (!agree) {
+                System.out.println(String.format("Shadow disagreement (%s, %s): primary %s, " +
+                                                 "%s %s", label, move, primary, name, shadow));
+                abandon("diverged");
+            }
+        }
+
+        // ---------- Mirrored Events ---------- //
+
+        public void bid(int pos, int[] bidx) {
+            String primary = bidString(bidx);
+            submit(() -> compare("bid", -1, primary, () -> bidString(deal.bid(pos))));
+        }
+
+        public void notifyBid(int pos, int docall) {
+            submit(() -> deal.bid(pos, docall));
+        }
+
+        public void swap(int declarer, int lone, int cswap) {
+            String primary = String.valueOf(cswap);
+            submit(() -> compare("swap", -1, primary,
+                                 () -> String.valueOf(deal.swap(declarer, lone))));
+        }
+
+        public void notifySwap(int declarer, int lone, int cardpos) {
+            submit(() -> deal.swap(declarer, lone, cardpos));
+        }
+
+        public void startPlay(int declarer, int trump, int lone, int round) {
+            submit(() -> deal.startPlay(declarer, trump, lone, round));
+        }
+
+        public void startTrick(int trickNum, int[] order) {
+            submit(() -> deal.startTrick(trickNum, order));
+        }
+
+        /**
+         *  Mirror play (compared if `decided`, otherwise passed to the shadow engine), then
+         *  update trick winner and suit led per the primary
+         */
+        public void play(int trickNum, int playnum, int playCard, boolean decided, int winpos,
+                         int leadsuit) {
+            String primary = String.valueOf(playCard);
+            submit(() -> {
+                if (decided) {
+                    compare("play", trickNum, primary,
+                            () -> String.valueOf(deal.play(playnum, -1)));
+                } else {
+                    deal.play(playnum, playCard);
+                }
+                win[trickNum+1]  = winpos;
+                lead[trickNum+1] = leadsuit;
+            });
+        }
+
+        public void endTrick(int trickNum) {
+            submit(() -> deal.endTrick(trickNum));
+        }
+
+        // deal completed by the primary (counted as agreed, if still being shadowed)
+        public void complete() {
+            submit(() -> {
+                synchronized (this) {
+                    if (abandoned) {
+                        return;
+                    }
+                    abandoned = true;  // no further events
+                }
+                metrics.shadowDeal("agreed");
+            });
+        }
+
+        // bid decision (suit and call), for comparison
+        static String bidString(int[] bidx) {
+            return bidx[3] > 0 ? Arrays.toString(new int[] {bidx[2], bidx[3]}) : "pass";
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package game;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+/**
+ *  Isolated (child-first) classloader for an engine jar
+ *
+ *  Classes in the `game` package are loaded from the jar first, except for the strategy
+ *  SPI, which is always shared with the endpoint.  If the jar does not contain the
+ *  `BetaStrategy` adapter, it is defined in this loader from the endpoint's class files, so
+ *  a plain EuchreBeta jar can be loaded as-is.
+ */
+class StrategyLoader extends URLClassLoader
+{
+    static final String ENGINE_PKG     = "game.";
+    static final String SPI_PREFIX     = EngineStrategy.class.getName();
+    static final String ADAPTER_PREFIX = BetaStrategy.class.getName();
+
+    public StrategyLoader(Path jar, ClassLoader parent) throws MalformedURLException {
+        super("strategy:" + jar.getFileName(), new URL[] {jar.toUri().toURL()}, parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!name.startsWith(ENGINE_PKG) || name.startsWith(SPI_PREFIX)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+            if (c == null) {
+                try {
+                    c = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    if (name.startsWith(ADAPTER_PREFIX)) {
+                        c = defineFromParent(name);
+                    } else {
+                        c = super.loadClass(name, false);
+                    }
+                }
+            }
+            if (resolve) {
+                resolveClass(c);
+            }
+            return c;
+        }
+    }
+
+    Class<?> defineFromParent(String name) throws ClassNotFoundException {
+        String path = name.replace('.', '/') + ".class";
+        try (InputStream in = getParent().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new ClassNotFoundException(name);
+            }
+            byte[] bytes = in.readAllBytes();
+            return defineClass(name, bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package game;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.jar.JarFile;
+
+/**
+ *  Engine strategies available for sessions, and assignment of sessions to strategies
+ *
+ *  Strategies are configured as a ratio (e.g. "default:3,beta2:1"), where "default" is the
+ *  engine on the endpoint classpath, and any other name refers to `<dir>/<name>.jar` (loaded
+ *  in an isolated `StrategyLoader`).  Jars are checked for changes whenever a session is
+ *  assigned, and reloaded if modified, so a new engine build can be swapped in without a
+ *  restart (existing sessions keep the strategy they were assigned).
+ *
+ *  Each jar is copied to a private file before loading, so the loaded classes are not
+ *  affected if the jar is later overwritten in place; the loader is closed (and the copy
+ *  deleted) once the strategy is no longer referenced by the registry, or by any session,
+ *  game, or deal (engine games hold their strategy, see `EngineStrategy.newGame`).  If a
+ *  jar fails to load, the last good version stays in use (sessions are assigned to
+ *  "default" if there is none), and loading is retried on the next assignment.
+ */
+class StrategyRegistry
+{
+    static final String  DEFAULT = "default";
+    static final Cleaner cleaner = Cleaner.create();
+
+    record Entry(String name, EngineStrategy strategy, long modified)
+    {
+    }
+
+    Path               dir;
+    ArrayList<String>  names   = new ArrayList<String>();
+    ArrayList<Integer> weights = new ArrayList<Integer>();
+    int                totalWeight;
+    long               assigned;  // sessions assigned
+
+    HashMap<String, Entry> entries = new HashMap<String, Entry>();
+    HashMap<String, Long>  failed  = new HashMap<String, Long>();  // last failed version
+
+    public StrategyRegistry(String dir, String ratio) {
+        System.out.println(String.format("StrategyRegistry(%s, %s)", dir, ratio));
+        this.dir = dir.isEmpty() ? null : Path.of(dir);
+        for (String part : ratio.split(",")) {
+            String[] nw = part.trim().split(":");
+            int weight = nw.length > 1 ? Integer.parseInt(nw[1]) : 1;
+            assert weight > 0 : "bad strategy weight: " + part;
+            assert nw[0].equals(DEFAULT) || this.dir != null : "strategy dir not set: " + part;
+            names.add(nw[0]);
+            weights.add(weight);
+            totalWeight += weight;
+        }
+        entries.put(DEFAULT, new Entry(DEFAULT, new BetaStrategy(), 0L));
+        refresh();
+    }
+
+    /**
+     *  (Re)load strategy jars that are new or modified
+     */
+    void refresh() {
+        for (String name : names) {
+            refresh(name);
+        }
+    }
+
+    // returns null if the strategy has never loaded successfully
+    Entry refresh(String name) {
+        if (name.equals(DEFAULT)) {
+            return entries.get(DEFAULT);
+        }
+        assert dir != null : "strategy dir not set: " + name;
+        Path  jar      = dir.resolve(name + ".jar");
+        Entry entry    = entries.get(name);
+        long  modified = -1L;
+        try {
+            modified = Files.getLastModifiedTime(jar).toMillis();
+            if (entry == null || entry.modified() != modified) {
+                entry = new Entry(name, load(jar), modified);
+                entries.put(name, entry);
+                failed.remove(name);
+                System.out.println(String.format("StrategyRegistry: loaded %s", jar));
+            }
+        } catch (IOException | RuntimeException | ServiceConfigurationError | LinkageError e) {
+            // keep last good version (log once per version of the jar)
+            Long prev = failed.put(name, modified);
+            if (prev == null || prev != modified) {
+                System.out.println(String.format("StrategyRegistry: cannot load %s (%s), using %s",
+                                                 jar, e, entry == null ? DEFAULT : "last good"));
+            }
+        }
+        return entry;
+    }
+
+    static EngineStrategy load(Path jar) throws IOException {
+        Path copy = Files.createTempFile(jar.getFileName().toString().replace(".jar", "-"),
+                                         ".jar");
+        StrategyLoader loader = null;
+        try {
+            Files.copy(jar, copy, StandardCopyOption.REPLACE_EXISTING);
+            // fail here on a bad (e.g. partially written) jar, rather than on first use
+            try (JarFile check = new JarFile(copy.toFile())) {
+                check.stream().count();
+            }
+            loader = new StrategyLoader(copy, StrategyRegistry.class.getClassLoader());
+            EngineStrategy strategy = newStrategy(loader, jar);
+            StrategyLoader cleanup = loader;
+            cleaner.register(strategy, () -> close(cleanup, copy));
+            return strategy;
+        } catch (IOException | RuntimeException | Error e) {
+            close(loader, copy);
+            throw e;
+        }
+    }
+
+    static EngineStrategy newStrategy(StrategyLoader loader, Path jar) {
+        // jar may provide its own implementation, otherwise use EuchreBeta adapter
+        for (EngineStrategy strategy : ServiceLoader.load(EngineStrategy.class, loader)) {
+            if (strategy.getClass().getClassLoader() == loader) {
+                return strategy;
+            }
+        }
+        if (loader.findResource(Game.class.getName().replace('.', '/') + ".class") == null) {
+            throw new IllegalStateException("no strategy or EuchreBeta engine in " + jar);
+        }
+        try {
+            return (EngineStrategy)loader.loadClass(BetaStrategy.class.getName())
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot load strategy from " + jar, e);
+        }
+    }
+
+    // release loader and private copy of jar (once strategy is unreachable, or on failure)
+    static void close(StrategyLoader loader, Path copy) {
+        try {
+            if (loader != null) {
+                loader.close();
+            }
+            Files.deleteIfExists(copy);
+        } catch (IOException e) {
+            System.out.println(String.format("StrategyRegistry: cannot remove %s (%s)", copy, e));
+        }
+    }
+
+    /**
+     *  Get strategy by name (need not be in the assignment ratio), reloaded if modified
+     *  (null if it has never loaded successfully)
+     */
+    public synchronized Entry get(String name) {
+        return refresh(name);
+    }
+
+    /**
+     *  Assign strategy for a new session (weighted round-robin)
+     */
+    public synchronized Entry assign() {
+        refresh();
+        int slot = (int)(assigned++ % totalWeight);
+        for (int i = 0; i < names.size(); i++) {
+            slot -= weights.get(i);
+            if (slot < 0) {
+                Entry entry = entries.get(names.get(i));
+                return entry != null ? entry : entries.get(DEFAULT);
+            }
+        }
+        throw new IllegalStateException("bad strategy weights");
+    }
+}
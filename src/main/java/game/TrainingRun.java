@@ -0,0 +1,180 @@
+package game;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ *  Training run for the AppCDS archive (`fast-start` build profile)
+ *
+ *  If `endpoint.training.deals` is set, the server plays that many deals against itself
+ *  over HTTP once it is ready (all four positions decided by the engine, through the same
+ *  request path as a real coordinator), then exits.  This loads the classes for request
+ *  handling (dispatcher, JSON binding, controller) and the engine, so they are included in
+ *  the archive.
+ */
+@Component
+class TrainingRun
+{
+    static final int DEALER_POS = 3;
+
+    int          deals;
+    // created only for a training run (this component is present in every server)
+    HttpClient   client;
+    ObjectMapper mapper;
+    String       baseUrl;
+
+    public TrainingRun(@Value("${endpoint.training.deals:0}") int deals) {
+        this.deals = deals;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) throws Exception {
+        if (deals <= 0) {
+            return;
+        }
+        WebServerApplicationContext ctx =
+            (WebServerApplicationContext)event.getApplicationContext();
+        client  = HttpClient.newHttpClient();
+        mapper  = new ObjectMapper();
+        baseUrl = "http://localhost:" + ctx.getWebServer().getPort();
+        System.out.println(String.format("TrainingRun: %d deals (%s)", deals, baseUrl));
+
+        String token = "training";
+        send("POST", "/session", String.format("{\"token\": \"%s\", \"status\": \"new\"}",
+                                               token));
+        send("POST", "/game", String.format("{\"token\": \"%s\", \"gameNum\": 0, " +
+                                            "\"status\": \"new\"}", token));
+        Random rnd = new Random(1);
+        for (int dealNum = 0; dealNum < deals; dealNum++) {
+            playDeal(token, dealNum, rnd);
+        }
+        send("PATCH", "/game", String.format("{\"token\": \"%s\", \"gameNum\": 0, " +
+                                             "\"status\": \"complete\"}", token));
+        send("PATCH", "/session", String.format("{\"token\": \"%s\", " +
+                                                "\"status\": \"complete\"}", token));
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+    }
+
+    JsonNode send(String method, String path, String body) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                     .header("Content-Type", "application/json")
+                                     .method(method, body == null ?
+                                             HttpRequest.BodyPublishers.noBody() :
+                                             HttpRequest.BodyPublishers.ofString(body))
+                                     .build();
+        HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() != 200) {
+            // fail the build (assertions are not enabled for the training run)
+            throw new IllegalStateException(String.format("%s %s: status %d", method, path,
+                                                          resp.statusCode()));
+        }
+        return mapper.readTree(resp.body());
+    }
+
+    static String join(List<Integer> cards) {
+        return cards.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    void playDeal(String token, int dealNum, Random rnd) throws Exception {
+        List<Integer> deck = new ArrayList<Integer>();
+        for (int card = 0; card < 24; card++) {
+            deck.add(card);
+        }
+        Collections.shuffle(deck, rnd);
+        List<List<Integer>> hands = new ArrayList<List<Integer>>();
+        for (int pos = 0; pos < 4; pos++) {
+            hands.add(new ArrayList<Integer>(deck.subList(pos * 5, pos * 5 + 5)));
+        }
+        int    turnCard = deck.get(20);
+        String deal     = String.format("\"token\": \"%s\", \"gameNum\": 0, \"dealNum\": %d",
+                                        token, dealNum);
+        send("POST", "/deal", String.format("{%s, \"status\": \"new\", \"cards\": [%s]}", deal,
+                                            join(deck)));
+        String query = String.format("token=%s&gameNum=0&dealNum=%d", token, dealNum);
+
+        // bidding (engine decides for all positions)
+        int     declarer = -1;
+        int     trump    = -1;
+        boolean alone    = false;
+        for (int bidSeq = 0; bidSeq < 8 && declarer < 0; bidSeq++) {
+            String   params = String.format("round=%d&turnCard=%d&pos=%d", bidSeq / 4, turnCard,
+                                            bidSeq % 4);
+            JsonNode bid    = send("GET", "/bid?" + query + "&" + params, null);
+            int suit = bid.get("suit").asInt();
+            if (suit >= 0 && suit < 4) {
+                declarer = bidSeq % 4;
+                trump    = suit;
+                alone    = bid.get("alone").asBoolean();
+                if (bidSeq < 4) {
+                    List<Integer> hand = hands.get(DEALER_POS);
+                    params = String.format("declarerPos=%d&turnCard=%d&pos=%d&swappableCards=%s",
+                                           declarer, turnCard, DEALER_POS, join(hand));
+                    JsonNode swap = send("GET", "/swap?" + query + "&" + params, null);
+                    int card = swap.get("card").asInt();
+                    if (card != turnCard) {
+                        hand.remove(Integer.valueOf(card));
+                        hand.add(turnCard);
+                    }
+                }
+            }
+        }
+
+        // play (engine decides for all positions)
+        int leader = (DEALER_POS + 1) % 4;
+        for (int trickNum = 0; trickNum < 5 && declarer >= 0; trickNum++) {
+            String trick = String.format("%s, \"trickNum\": %d", deal, trickNum);
+            send("POST", "/trick", String.format("{%s, \"status\": \"new\"}", trick));
+            int winPos   = -1;
+            int winVal   = -1;
+            int leadSuit = -1;
+            for (int trickSeq = 0; trickSeq < 4; trickSeq++) {
+                int pos = (leader + trickSeq) % 4;
+                if (alone && pos == (declarer + 2) % 4) {
+                    continue;
+                }
+                List<Integer> hand = hands.get(pos);
+                String params = String.format("trickNum=%d&trickSeq=%d&pos=%d&playableCards=%s",
+                                              trickNum, trickSeq, pos, join(hand));
+                JsonNode play = send("GET", "/play?" + query + "&" + params, null);
+                int card = play.get("card").asInt();
+                hand.remove(Integer.valueOf(card));
+                // left bower belongs to trump suit
+                boolean bower = card / 4 == 2 && (card % 4 == trump || card % 4 == 3 - trump);
+                int suit = bower ? trump : card % 4;
+                if (leadSuit < 0) {
+                    leadSuit = suit;
+                }
+                int val;
+                if (suit == trump) {
+                    val = bower ? (card % 4 == trump ? 107 : 106) : 100 + card / 4;
+                } else {
+                    val = suit == leadSuit ? card / 4 : -1;
+                }
+                if (val > winVal) {
+                    winPos = pos;
+                    winVal = val;
+                }
+            }
+            send("PATCH", "/trick", String.format("{%s, \"status\": \"complete\"}", trick));
+            leader = winPos;
+        }
+        send("PATCH", "/deal", String.format("{%s, \"status\": \"complete\"}", deal));
+    }
+}
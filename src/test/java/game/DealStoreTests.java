@@ -0,0 +1,88 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DealStoreTests {
+
+	// record deal `d` in `hist`: declarer/trump (-1 for all passed), and trick winners
+	static void addDeal(GameHistory hist, int d, int declarer, int trump, int[] winners) {
+		int base = hist.dealOffset(d);
+		for (int i = 0; i < 24; i++) {
+			hist.data[base + i] = (byte)((i + d) % 24);
+		}
+		hist.data[base + GameHistory.OFF_BIDS]  = (byte)(declarer < 0 ? -1 : declarer);
+		hist.data[base + GameHistory.OFF_DCLR]  = (byte)declarer;
+		hist.data[base + GameHistory.OFF_TRUMP] = (byte)trump;
+		hist.data[base + GameHistory.OFF_LONE]  = -1;
+		hist.data[base + GameHistory.OFF_SWAP]  = (byte)(declarer < 0 ? -1 : 20);
+		hist.data[base + GameHistory.OFF_NTRICK] = (byte)winners.length;
+		for (int tr = 0; tr < winners.length; tr++) {
+			int off = base + GameHistory.OFF_TRICKS + tr * GameHistory.TRICK_LEN;
+			hist.data[off + 5] = (byte)winners[tr];
+		}
+		hist.numDeals = d + 1;
+	}
+
+	@Test
+	void roundTrip(@TempDir Path dir) {
+		GameHistory hist = new GameHistory();
+		addDeal(hist, 0, 1, 2, new int[] {1, 3, 1, 0, 3});  // made (4 tricks)
+		addDeal(hist, 1, 1, 2, new int[] {0, 2, 0, 1, 3});  // euchred (2 tricks)
+		addDeal(hist, 2, -1, -1, new int[0]);               // all passed
+		addDeal(hist, 3, 0, 3, new int[] {1, 1, 3, 0, 3});  // euchred (1 trick)
+
+		DealStore store = new DealStore(dir, 3);
+		for (int d = 0; d < 4; d++) {
+			store.append(hist, d);
+		}
+		store.flush();
+
+		DealStore.Reader reader = new DealStore.Reader(dir);
+		assertEquals(2, reader.batches().size());
+		assertEquals(4, reader.size());
+
+		DealStore.Batch batch = reader.batches().get(0);
+		assertEquals(3, batch.size());
+		assertEquals(5, batch.card(1, 4));
+		assertEquals(1, batch.declarer(0));
+		assertEquals(2, batch.trump(0));
+		assertEquals(-1, batch.declarer(2));
+		assertEquals(20, batch.swap(0));
+		assertEquals(3, batch.winner(0, 1));
+		assertEquals(-1, batch.winner(2, 0));
+		assertEquals(4, batch.dclrTricks(0));
+		assertEquals(2, batch.dclrTricks(1));
+
+		double[][] rates = reader.euchreRates();
+		assertEquals(0.5, rates[1][2]);
+		assertEquals(1.0, rates[0][3]);
+		assertTrue(Double.isNaN(rates[2][0]));
+	}
+
+	@Test
+	void batchNumberAfterGap(@TempDir Path dir) throws IOException {
+		Files.write(dir.resolve("deals-000000.col"), new byte[0]);
+		Files.write(dir.resolve("deals-000002.col"), new byte[0]);
+		DealStore store = new DealStore(dir, 10);
+		assertEquals(3, store.batchNum);
+
+		GameHistory hist = new GameHistory();
+		addDeal(hist, 0, 1, 2, new int[] {1, 3, 1, 0, 2});
+		store.append(hist, 0);
+		store.flush();
+		assertEquals(0, Files.size(dir.resolve("deals-000002.col")));
+		assertEquals(List.of("deals-000000.col", "deals-000002.col", "deals-000003.col"),
+					 DealStore.batchFiles(dir).stream().map(p -> p.getFileName().toString())
+							  .toList());
+	}
+
+}
@@ -0,0 +1,135 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EquityTableTests {
+
+	@Test
+	void handIndexRoundTrip() {
+		int[] hand = new int[5];
+		for (int idx = 0; idx < EquityTable.HANDS; idx++) {
+			EquityTable.handFromIndex(idx, hand);
+			for (int k = 0; k < 5; k++) {
+				assertTrue(hand[k] >= 0 && hand[k] < 24, "bad card for index " + idx);
+				assertTrue(k == 0 || hand[k - 1] < hand[k], "not ascending for index " + idx);
+			}
+			assertEquals(idx, EquityTable.handIndex(hand), "round trip");
+		}
+	}
+
+	// color-preserving suit permutation: suit pairs {0, 3} and {1, 2} are same color
+	static int[] suitPerm(boolean swapPairs, boolean flipFirst, boolean flipSecond) {
+		int[] perm = new int[4];
+		int a = flipFirst ? 3 : 0;
+		int b = flipSecond ? 2 : 1;
+		if (swapPairs) {
+			int t = a;
+			a = b;
+			b = t;
+		}
+		perm[0] = a;
+		perm[3] = 3 - a;
+		perm[1] = b;
+		perm[2] = 3 - b;
+		return perm;
+	}
+
+	static int permCard(int card, int[] perm) {
+		return card / 4 * 4 + perm[card % 4];
+	}
+
+	@Test
+	void entryIndexSuitSymmetry() {
+		int[] hand = new int[5];
+		int[] mapped = new int[5];
+		int[] reversed = new int[5];
+		for (int idx = 0; idx < EquityTable.HANDS; idx++) {
+			EquityTable.handFromIndex(idx, hand);
+			for (int turnSuit = 0; turnSuit < 4; turnSuit++) {
+				// lowest rank of turn suit not in hand
+				int turnCard = turnSuit;
+				while (Arrays.binarySearch(hand, turnCard) >= 0) {
+					turnCard += 4;
+				}
+				if (turnCard >= 24) {
+					continue;
+				}
+				int pos = idx % 4;
+				int entry = EquityTable.entryIndex(hand, turnCard, pos);
+				assertTrue(entry >= 0 && entry < EquityTable.ENTRIES, "entry out of range");
+				assertEquals(pos, entry % 4, "position");
+				assertEquals(turnCard / 4, entry / 4 % 6, "turn rank");
+
+				for (int i = 0; i < 5; i++) {
+					reversed[i] = hand[4 - i];
+				}
+				assertEquals(entry, EquityTable.entryIndex(reversed, turnCard, pos), "hand order");
+
+				for (int p = 0; p < 8; p++) {
+					int[] perm = suitPerm((p & 1) != 0, (p & 2) != 0, (p & 4) != 0);
+					for (int i = 0; i < 5; i++) {
+						mapped[i] = permCard(hand[i], perm);
+					}
+					assertEquals(entry, EquityTable.entryIndex(mapped, permCard(turnCard, perm), pos),
+								 "suit permutation " + Arrays.toString(perm));
+				}
+			}
+		}
+	}
+
+	@Test
+	void canonicalTurnSuit() {
+		// turn suit maps to 0 and its same-color suit to 3
+		for (int turnSuit = 0; turnSuit < 4; turnSuit++) {
+			assertEquals(0, EquityTable.canonCard(turnSuit, turnSuit, false) % 4);
+			assertEquals(3, EquityTable.canonCard(3 - turnSuit, turnSuit, true) % 4);
+			assertEquals(8, EquityTable.canonCard(8 + turnSuit, turnSuit, true));
+		}
+		// all cards of the turn suit
+		int[] canon = {0, 4, 8, 12, 16};
+		assertEquals((EquityTable.handIndex(canon) * 6 + 5) * 4 + 2,
+					 EquityTable.entryIndex(new int[] {1, 5, 9, 13, 17}, 21, 2));
+	}
+
+	@Test
+	void saveLoadRoundTrip(@TempDir Path dir) throws IOException {
+		short[] entries = new short[EquityTable.ENTRIES];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = (short)(i % 7 == 0 ? EquityTable.MISSING : i % 4001 - 2000);
+		}
+		Path file = dir.resolve("equity.bin");
+		EquityTable.save(file, entries, 250);
+
+		EquityTable table = EquityTable.load(file, EquityTable.Mode.FAST, 100);
+		assertEquals(250, table.samples);
+		assertEquals(EquityTable.Mode.FAST, table.mode);
+		assertArrayEquals(entries, table.entries);
+	}
+
+	@Test
+	void loadBadFile(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("equity.bin");
+		EquityTable.save(file, new short[EquityTable.ENTRIES], 1);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[0] = 0;  // magic
+		Files.write(file, bytes);
+		assertThrows(IllegalStateException.class,
+					 () -> EquityTable.load(file, EquityTable.Mode.FAST, 0));
+
+		Files.write(file, Arrays.copyOf(bytes, 16));
+		assertThrows(IllegalStateException.class,
+					 () -> EquityTable.load(file, EquityTable.Mode.FAST, 0));
+	}
+
+}
@@ -0,0 +1,87 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ProtocolTests {
+
+	@Test
+	void roundTrip() {
+		for (Protocol protocol : Protocol.protocols.values()) {
+			String name = protocol.name;
+			for (int c = 0; c < 24; c++) {
+				assertEquals(c, protocol.coordCard(protocol.card(c)), name + " card " + c);
+				assertEquals(c, protocol.card(protocol.coordCard(c)), name + " server card " + c);
+			}
+			for (int s = 0; s < 4; s++) {
+				assertEquals(s, protocol.coordSuit(protocol.suit(s)), name + " suit " + s);
+				assertEquals(s, protocol.suit(protocol.coordSuit(s)), name + " server suit " + s);
+			}
+			// no card, and coordinator pass, are passed through
+			assertEquals(-1, protocol.card(-1));
+			assertEquals(-1, protocol.coordCard(-1));
+			assertEquals(-1, protocol.suit(-1));
+			assertEquals(-1, protocol.coordSuit(-1));
+		}
+	}
+
+	@Test
+	void knownCards() {
+		// suit-major: 9C, 10C, JC, ... AC, 9D, ...
+		Protocol suitMajor = Protocol.get("suit-major");
+		assertEquals(3, suitMajor.card(0));   // 9C
+		assertEquals(7, suitMajor.card(1));   // 10C
+		assertEquals(2, suitMajor.card(6));   // 9D
+		assertEquals(20, suitMajor.card(23)); // AS
+		assertEquals(0, suitMajor.suit(3));   // spades
+		assertEquals(-1, suitMajor.coordSuit(4));  // engine pass
+		assertNull(suitMajor.getCards());
+
+		// rank-major: 9C, 9D, 9H, 9S, 10C, ...
+		Protocol rankMajor = Protocol.get("rank-major");
+		for (int c = 0; c < 24; c++) {
+			assertEquals(Protocol.cards[c], rankMajor.card(c));
+		}
+		assertEquals(List.of(3, 2, 7), rankMajor.cards(List.of(0, 1, 4)));
+		assertEquals(-1, rankMajor.coordSuit(4));
+
+		// default: coordinator translates, per returned representation
+		Protocol dflt = Protocol.get(null);
+		assertEquals(Protocol.DEFAULT, dflt.name);
+		assertArrayEquals(new int[] {0, 23, -1}, dflt.cards(new int[] {0, 23, -1}));
+		assertNotNull(dflt.getCards());
+		assertNotNull(dflt.getSuits());
+		assertEquals(4, dflt.coordSuit(4));  // engine pass (unchanged for existing clients)
+	}
+
+	@Test
+	void playCards() {
+		for (int trump = -1; trump < 4; trump++) {
+			for (int c = 0; c < 24; c++) {
+				int playCard = Protocol.PLAY_CARDS[trump + 1][c];
+				assertEquals(c, Protocol.PLAY_TO_CARD[playCard], "trump " + trump + " card " + c);
+			}
+			if (trump < 0) {
+				// no bowers before trump is declared
+				for (int s = 0; s < 4; s++) {
+					assertEquals(s + 20, Protocol.PLAY_CARDS[0][8 + s]);
+				}
+				continue;
+			}
+			// right and left bower ranked above ace, both in trump suit
+			assertEquals(trump + 70, Protocol.PLAY_CARDS[trump + 1][8 + trump]);
+			assertEquals(trump + 60, Protocol.PLAY_CARDS[trump + 1][8 + 3 - trump]);
+			assertEquals(trump + 50, Protocol.PLAY_CARDS[trump + 1][20 + trump]);
+		}
+		// unused play cards (suit digit above 3)
+		assertEquals(-1, Protocol.PLAY_TO_CARD[4]);
+		assertEquals(-1, Protocol.PLAY_TO_CARD[79]);
+	}
+
+}
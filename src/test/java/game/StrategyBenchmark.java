@@ -0,0 +1,202 @@
+package game;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.EngineStrategy.EngineDeal;
+import game.EngineStrategy.EngineGame;
+
+/**
+ *  JMH comparison of a full deal played by calling the EuchreBeta `Deal` directly, versus
+ *  through the `EngineStrategy` SPI (both the classpath `BetaStrategy` and one loaded from
+ *  the engine jar in an isolated `StrategyLoader`)
+ *
+ *  All variants play the same fixed sequence of deals, with the engine making every move.
+ *  Run with (after `mvn test-compile`):
+ *
+ *    java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main StrategyBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class StrategyBenchmark
+{
+    static final int DEALER_POS = 3;
+    static final int NUM_DEALS  = 256;
+
+    int[][]        deals = new int[NUM_DEALS][];
+    int            next;
+    EngineStrategy beta;
+    EngineStrategy isolated;
+
+    // per-deal state (same as `EpDeal`)
+    int[] win;
+    int[] lead;
+    int[] trick;
+    int[] points = new int[4];
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        SplittableRandom rnd = new SplittableRandom(1);
+        for (int d = 0; d < NUM_DEALS; d++) {
+            int[] cards = new int[24];
+            for (int i = 0; i < 24; i++) {
+                int j = rnd.nextInt(i + 1);
+                cards[i] = cards[j];
+                cards[j] = i;
+            }
+            deals[d] = cards;
+        }
+        beta = new BetaStrategy();
+        Path engineJar = Path.of(Deal.class.getProtectionDomain().getCodeSource()
+                                             .getLocation().toURI());
+        isolated = StrategyRegistry.load(engineJar);
+    }
+
+    int[] nextDeal() {
+        win   = new int[] {(DEALER_POS + 1) % 4, -1, -1, -1, -1, -1};
+        lead  = new int[] {-1, -1, -1, -1, -1, -1};
+        trick = new int[4];
+        // copy, since the engine rewrites the cards on swap
+        return deals[next++ % NUM_DEALS].clone();
+    }
+
+    // track trick winner and suit led (same evaluation as `EpTrick.processPlay`)
+    static int evalPlay(int[] win, int[] lead, int tr, int curpos, int playCard, int trump,
+                        int winval) {
+        int cursuit = playCard % 10;
+        int currank = playCard / 10;
+        int curval  = -1;
+        if (cursuit == trump) {
+            curval = 10 + currank;
+        } else if (lead[tr+1] == -1 || cursuit == lead[tr+1]) {
+            curval = currank;
+        }
+        if (lead[tr+1] == -1) {
+            lead[tr+1] = cursuit;
+        }
+        if (curval > winval) {
+            win[tr+1] = curpos;
+            return curval;
+        }
+        return winval;
+    }
+
+    static int[] order(int leader) {
+        return new int[] {leader, (leader+1)%4, (leader+2)%4, (leader+3)%4};
+    }
+
+    @Benchmark
+    public int direct() {
+        int[]     cards = nextDeal();
+        Game      game  = new Game();
+        GameState gs    = new GameState(points, 10);
+        Deal      deal  = new Deal(cards, DEALER_POS);
+        DealState ds    = new DealState(win, lead, trick);
+        deal.prepareBid();
+        int[] bidx = null;
+        int   bid;
+        for (bid = 0; bid < 8; bid++) {
+            bidx = deal.bidder(bid, gs);
+            if (bidx[3] > 0) {
+                break;
+            }
+        }
+        if (bid == 8) {
+            return 0;
+        }
+        int lone = bidx[0], declarer = bidx[1], trump = bidx[2];
+        if (bid < 4) {
+            deal.swapCard(declarer, lone, 0);
+        }
+        int sum = 0;
+        for (int tr = 0; tr < 5; tr++) {
+            deal.pos[tr+1] = order(win[tr]);
+            if (tr == 0) {
+                deal.preparePlay(declarer, trump, lone, bid / 4);
+                Game.cardname[trump][6] = "Jack of " + Game.suitx[3-trump];
+                deal.validateHands();
+            }
+            int winval = -1;
+            for (int pl = 0; pl < 4; pl++) {
+                int curpos = deal.pos[tr+1][pl];
+                if (lone == (curpos+2)%4) {
+                    continue;
+                }
+                int playCard = deal.player(tr*4+pl, ds, -1);
+                deal.validateHands();
+                winval = evalPlay(win, lead, tr, curpos, playCard, trump, winval);
+                sum += playCard;
+            }
+            deal.updatePlay(tr);
+        }
+        return sum;
+    }
+
+    int viaStrategy(EngineStrategy strategy) {
+        int[]      cards = nextDeal();
+        EngineGame game  = strategy.newGame(points, 10);
+        EngineDeal deal  = game.newDeal(cards, DEALER_POS, win, lead, trick);
+        int[] bidx = null;
+        int   bid;
+        for (bid = 0; bid < 8; bid++) {
+            bidx = deal.bid(bid);
+            if (bidx[3] > 0) {
+                break;
+            }
+        }
+        if (bid == 8) {
+            return 0;
+        }
+        int lone = bidx[0], declarer = bidx[1], trump = bidx[2];
+        if (bid < 4) {
+            deal.swap(declarer, lone);
+        }
+        int sum = 0;
+        for (int tr = 0; tr < 5; tr++) {
+            int[] pos = order(win[tr]);
+            deal.startTrick(tr, pos);
+            if (tr == 0) {
+                deal.startPlay(declarer, trump, lone, bid / 4);
+            }
+            int winval = -1;
+            for (int pl = 0; pl < 4; pl++) {
+                int curpos = pos[pl];
+                if (lone == (curpos+2)%4) {
+                    continue;
+                }
+                int playCard = deal.play(tr*4+pl, -1);
+                winval = evalPlay(win, lead, tr, curpos, playCard, trump, winval);
+                sum += playCard;
+            }
+            deal.endTrick(tr);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int strategy() {
+        return viaStrategy(beta);
+    }
+
+    @Benchmark
+    public int isolatedStrategy() {
+        return viaStrategy(isolated);
+    }
+}